@@ -335,13 +335,19 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        // Read-only operations that will not try and take the controller lock run against a pinned snapshot of
+        // the currently published model, so they see one consistent model for their whole execution and never
+        // need to coordinate with a writer publishing a new model
+        final boolean readOnlySnapshot = !attemptLock && isReadOnlyOperation(operation);
+
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
             final Integer operationID = random.nextInt();
+            final ManagementModelImpl currentModel = readOnlySnapshot ? managementModel.get().readOnlySnapshot() : managementModel.get();
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, runningModeControl.getRunningMode(),
-                    contextFlags, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
+                    contextFlags, handler, attachments, currentModel, originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), hostServerGroupTracker, blockingTimeoutConfig, accessMechanism, notificationSupport);
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
@@ -390,6 +396,28 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Gets whether the given operation is registered as {@link OperationEntry.Flag#READ_ONLY read-only} against
+     * the currently published resource registration.
+     *
+     * @param operation the operation. Cannot be {@code null}
+     * @return {@code true} if the operation's handler is known to not modify the model
+     */
+    private boolean isReadOnlyOperation(final ModelNode operation) {
+        if (!operation.hasDefined(OP)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        } catch (IllegalArgumentException e) {
+            // Invalid address; let the normal execution path report the problem
+            return false;
+        }
+        final Set<OperationEntry.Flag> flags = managementModel.get().getRootResourceRegistration().getOperationFlags(address, operation.get(OP).asString());
+        return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY);
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -1011,14 +1039,24 @@ class ModelControllerImpl implements ModelController {
         private final CapabilityRegistryImpl capabilityRegistry;
         // The capability registry we expose
         private final RuntimeCapabilityRegistry delegatingCapabilityRegistry;
+        // Whether we are a read-only view of a previously published model
+        private final boolean snapshot;
         private volatile boolean published;
 
         ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
                             final Resource rootResource,
                             final CapabilityRegistryImpl capabilityRegistry) {
+            this(resourceRegistration, rootResource, capabilityRegistry, false);
+        }
+
+        private ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
+                                    final Resource rootResource,
+                                    final CapabilityRegistryImpl capabilityRegistry,
+                                    final boolean snapshot) {
             this.resourceRegistration = resourceRegistration;
             this.rootResource = rootResource;
             this.capabilityRegistry = capabilityRegistry;
+            this.snapshot = snapshot;
             // What we expose depends on the state of our 'published' field. If 'true' we've been published
             // to the ModelController, and from then on callers should get whatever the MC has as current.
             // If 'false' we haven't been published; we are a local copy created by some OperationContext,
@@ -1042,7 +1080,7 @@ class ModelControllerImpl implements ModelController {
                 @Override
                 public Resource getDelegateResource() {
                     Resource result;
-                    if (published) {
+                    if (published && !snapshot) {
                         result = ModelControllerImpl.this.managementModel.get().rootResource;
                     } else {
                         result = rootResource;
@@ -1054,7 +1092,7 @@ class ModelControllerImpl implements ModelController {
                 @Override
                 public RuntimeCapabilityRegistry getDelegateCapabilityRegistry() {
                     RuntimeCapabilityRegistry result;
-                    if (published) {
+                    if (published && !snapshot) {
                         result = ModelControllerImpl.this.managementModel.get().capabilityRegistry;
                     } else {
                         result = capabilityRegistry;
@@ -1167,6 +1205,25 @@ class ModelControllerImpl implements ModelController {
             return result;
         }
 
+        /**
+         * Creates a read-only view of the currently published model. Unlike this object, the view's root
+         * {@link Resource} and capability registry do not track later publications; they remain pinned to the
+         * published state at the time this method is called. Published state is never modified in place, so
+         * the view can be read without any coordination with threads that are writing the model.
+         * <p>
+         * Any attempt to clone the view for update is based on the then-current published model, exactly as if
+         * the view had never been created, so a writer never builds on stale state.
+         *
+         * @return the view. Will not return {@code null}
+         */
+        ManagementModelImpl readOnlySnapshot() {
+            ManagementModelImpl current = published ? ModelControllerImpl.this.managementModel.get() : this;
+            ManagementModelImpl result = new ManagementModelImpl(current.resourceRegistration, current.rootResource,
+                    current.capabilityRegistry, true);
+            result.published = true;
+            return result;
+        }
+
         /**
          * Compares the registered requirements to the registered capabilities, returning any missing requirements.
          *
@@ -1185,6 +1242,9 @@ class ModelControllerImpl implements ModelController {
         }
 
         private void publish() {
+            assert !snapshot : "cannot publish a read-only snapshot";
+            // readers of the published tree must not copy the children it shares with later clones
+            Resource.Tools.freeze(rootResource);
             ModelControllerImpl.this.managementModel.set(this);
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
             published = true;
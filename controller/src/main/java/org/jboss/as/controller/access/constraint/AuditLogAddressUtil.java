@@ -58,7 +58,7 @@ public class AuditLogAddressUtil {
                                                                 DOMAIN_AUDIT_LOG};
 
 
-    static boolean isAuditLogAddress(PathAddress address) {
+    public static boolean isAuditLogAddress(PathAddress address) {
         for (PathAddress pattern : AUDIT_LOG_ADDRESSES) {
             if (matches(pattern, address)) {
                 return true;
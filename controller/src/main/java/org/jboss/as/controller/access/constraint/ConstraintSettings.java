@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.constraint;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks changes to the configurable settings of the access constraints, i.e. the sensitivity and application type
+ * classifications and the scopes of the scoped roles. These settings are held by objects that are shared by the
+ * whole process, so any authorization decision that has been remembered must be discarded when the version changes.
+ */
+public final class ConstraintSettings {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private ConstraintSettings() {
+    }
+
+    /**
+     * Gets the current version of the constraint settings.
+     *
+     * @return a number that changes each time a setting is changed
+     */
+    public static long getVersion() {
+        return VERSION.get();
+    }
+
+    /**
+     * Records that a setting has changed. Must be called after the new setting is visible.
+     */
+    static void changed() {
+        VERSION.incrementAndGet();
+    }
+}
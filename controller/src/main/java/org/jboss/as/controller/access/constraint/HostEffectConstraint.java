@@ -97,6 +97,7 @@ public class HostEffectConstraint extends AbstractConstraint implements Constrai
         assert !global : "constraint is global";
         assert readOnlyConstraint != null : "invalid cast";
         this.hostsHolder.specific = new LinkedHashSet<String>(allowed);
+        ConstraintSettings.changed();
     }
 
     @Override
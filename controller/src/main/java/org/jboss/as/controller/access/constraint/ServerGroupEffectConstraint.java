@@ -133,6 +133,7 @@ public class ServerGroupEffectConstraint extends AbstractConstraint implements C
         assert !global : "constraint is global";
         assert readOnlyConstraint != null : "invalid cast";
         this.groupsHolder.specific = new LinkedHashSet<String>(allowed);
+        ConstraintSettings.changed();
     }
 
     @Override
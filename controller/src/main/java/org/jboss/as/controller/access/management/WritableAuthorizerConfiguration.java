@@ -30,12 +30,14 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.CombinationPolicy;
+import org.jboss.as.controller.access.constraint.ConstraintSettings;
 import org.jboss.as.controller.access.rbac.StandardRBACAuthorizer;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 
@@ -57,6 +59,8 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     private volatile Authorizer.AuthorizerDescription authorizerDescription;
     private volatile RoleMaps roleMaps;
     private final Set<ScopedRoleListener> scopedRoleListeners = new LinkedHashSet<ScopedRoleListener>();
+    /** Incremented after each change that can affect the decision for a set of roles; role mapping changes cannot */
+    private final AtomicLong configurationVersion = new AtomicLong();
 
     public WritableAuthorizerConfiguration(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
@@ -84,6 +88,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 }
             }
         }
+        configurationVersion.incrementAndGet();
     }
 
     public synchronized void registerScopedRoleListener(ScopedRoleListener listener) {
@@ -142,6 +147,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         Map<String, ScopedRole> newScopedRoles = new HashMap<String, ScopedRole>(roleMaps.scopedRoles);
         newScopedRoles.put(toAdd.getName(), toAdd);
         roleMaps = new RoleMaps(roleMaps.standardRoles, newScopedRoles);
+        configurationVersion.incrementAndGet();
     }
 
     public synchronized void removeScopedRole(String toRemove) {
@@ -153,6 +159,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 listener.scopedRoleRemoved(removed);
             }
         }
+        configurationVersion.incrementAndGet();
     }
 
     @Override
@@ -252,6 +259,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setPermissionCombinationPolicy(CombinationPolicy combinationPolicy) {
         assert combinationPolicy != null : "combinationPolicy is null";
         this.combinationPolicy = combinationPolicy;
+        configurationVersion.incrementAndGet();
     }
 
     void setNonFacadeMBeansSensitive(boolean nonFacadeMBeansSensitive) {
@@ -261,6 +269,19 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     synchronized void setAuthorizerDescription(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
         this.roleMaps = new RoleMaps(authorizerDescription.getStandardRoles(), roleMaps.scopedRoles);
+        configurationVersion.incrementAndGet();
+    }
+
+    /**
+     * Gets a number that changes whenever this configuration, or the settings of the access constraints it uses,
+     * changes in a way that can change the outcome of an authorization decision for a given set of roles.
+     * Authorizers can use this to know when decisions they have remembered are no longer valid.
+     *
+     * @return the current version of the configuration
+     */
+    public long getConfigurationVersion() {
+        // both only ever increase, so the sum changes whenever either does
+        return configurationVersion.get() + ConstraintSettings.getVersion();
     }
 
     private static String getOfficialForm(String roleName) {
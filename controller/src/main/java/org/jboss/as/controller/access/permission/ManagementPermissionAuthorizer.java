@@ -104,7 +104,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         return authorize(userPerms, requiredPerms);
     }
 
-    private AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+    /**
+     * Checks that the user's permissions imply all of the required permissions.
+     *
+     * @param userPermissions the permissions of the user
+     * @param requiredPermissions the permissions needed for the action
+     * @return the result of the authorization
+     */
+    protected final AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
 
         final Enumeration<Permission> enumeration = requiredPermissions.elements();
         while (enumeration.hasMoreElements()){
@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.rbac;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.AuthorizerConfiguration;
+import org.jboss.as.controller.access.HostEffect;
+import org.jboss.as.controller.access.ServerGroupEffect;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.constraint.AuditLogAddressUtil;
+import org.jboss.as.controller.access.constraint.VaultExpressionSensitivityConfig;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Remembers the authorization decisions made by {@link StandardRBACAuthorizer}.
+ * <p/>
+ * With the standard constraints, the decision for a resource or attribute only depends on the caller's roles, the
+ * action's effects and access constraints, and the access constraints of the target, which come from its resource
+ * registration, as long as:
+ * <ul>
+ *     <li>the action does not write, as the vault expression constraint then looks at the values in the operation</li>
+ *     <li>the target is not an attribute whose current value may be a sensitive vault expression</li>
+ *     <li>the target affects all hosts and server groups, as otherwise the effect depends on the address</li>
+ *     <li>the target is not in the management resources, whose constraints depend on the address</li>
+ * </ul>
+ * Only those decisions are remembered, so they are shared by all resources with the same registration, e.g. by every
+ * resource visited by a recursive read. Everything is forgotten when the
+ * {@link WritableAuthorizerConfiguration#getConfigurationVersion() configuration version} changes. Decisions made with
+ * any other {@link AuthorizerConfiguration}, whose changes cannot be tracked, are not remembered.
+ */
+final class AuthorizationDecisionCache {
+
+    /** Decisions are no longer remembered once this many are cached, until the configuration next changes */
+    private static final int MAX_SIZE = 10000;
+
+    private static final PathElement MANAGEMENT_ELEMENT = PathElement.pathElement(CORE_SERVICE, MANAGEMENT);
+
+    private final WritableAuthorizerConfiguration configuration;
+    private volatile Decisions decisions;
+
+    AuthorizationDecisionCache(AuthorizerConfiguration configuration) {
+        if (configuration instanceof WritableAuthorizerConfiguration) {
+            this.configuration = (WritableAuthorizerConfiguration) configuration;
+            this.decisions = new Decisions(this.configuration.getConfigurationVersion());
+        } else {
+            this.configuration = null;
+        }
+    }
+
+    /**
+     * Gets the decisions for the current configuration. This must be called before the decision to be cached is
+     * made, so that a decision made with an older configuration is never cached with a newer version.
+     *
+     * @return the decisions, or {@code null} if decisions cannot be cached with this configuration
+     */
+    Map<Key, AuthorizationResult> getDecisions() {
+        if (configuration == null) {
+            return null;
+        }
+        final long version = configuration.getConfigurationVersion();
+        Decisions current = decisions;
+        if (current.version != version) {
+            current = new Decisions(version);
+            decisions = current;
+        }
+        return current.map;
+    }
+
+    static void store(Map<Key, AuthorizationResult> decisions, Key key, AuthorizationResult result) {
+        if (decisions.size() < MAX_SIZE) {
+            decisions.put(key, result);
+        }
+    }
+
+    /**
+     * Creates the key for a decision, if it can be cached.
+     *
+     * @param roles the caller's roles
+     * @param action the action
+     * @param target the target resource
+     * @param attributeName the name of the target attribute, or {@code null} if the target is the resource
+     * @return the key, or {@code null} if the decision must not be cached
+     */
+    static Key createKey(Set<String> roles, Action action, TargetResource target, String attributeName) {
+        final Set<Action.ActionEffect> effects = action.getActionEffects();
+        final ImmutableManagementResourceRegistration registration = target.getResourceRegistration();
+        if (roles == null || registration == null
+                || effects.contains(Action.ActionEffect.WRITE_CONFIG) || effects.contains(Action.ActionEffect.WRITE_RUNTIME)) {
+            return null;
+        }
+        if (attributeName != null) {
+            for (Action.ActionEffect effect : effects) {
+                if (effect != Action.ActionEffect.ADDRESS && VaultExpressionSensitivityConfig.INSTANCE.isSensitive(effect)) {
+                    return null;
+                }
+            }
+        }
+        final HostEffect hostEffect = target.getHostEffect();
+        final ServerGroupEffect serverGroupEffect = target.getServerGroupEffect();
+        if ((hostEffect != null && !hostEffect.isHostEffectGlobal())
+                || (serverGroupEffect != null && !serverGroupEffect.isServerGroupEffectGlobal())) {
+            return null;
+        }
+        if (isManagementAddress(target.getResourceAddress())) {
+            return null;
+        }
+        final ModelNode operation = action.getOperation();
+        if (operation != null && operation.hasDefined(OP_ADDR) && isManagementAddress(PathAddress.pathAddress(operation.get(OP_ADDR)))) {
+            return null;
+        }
+        return new Key(roles, effects, action.getAccessConstraints(), registration, attributeName);
+    }
+
+    private static boolean isManagementAddress(PathAddress address) {
+        return address != null
+                && ((address.size() > 0 && MANAGEMENT_ELEMENT.equals(address.getElement(0))) || AuditLogAddressUtil.isAuditLogAddress(address));
+    }
+
+    private static final class Decisions {
+        private final long version;
+        private final Map<Key, AuthorizationResult> map = new ConcurrentHashMap<Key, AuthorizationResult>();
+
+        private Decisions(long version) {
+            this.version = version;
+        }
+    }
+
+    static final class Key {
+        private final Set<String> roles;
+        private final Set<Action.ActionEffect> effects;
+        private final List<AccessConstraintDefinition> actionConstraints;
+        private final ImmutableManagementResourceRegistration registration;
+        private final String attributeName;
+        private final int hashCode;
+
+        private Key(Set<String> roles, Set<Action.ActionEffect> effects, List<AccessConstraintDefinition> actionConstraints,
+                    ImmutableManagementResourceRegistration registration, String attributeName) {
+            this.roles = roles;
+            this.effects = effects;
+            this.actionConstraints = actionConstraints;
+            this.registration = registration;
+            this.attributeName = attributeName;
+            int result = roles.hashCode();
+            result = 31 * result + effects.hashCode();
+            result = 31 * result + actionConstraints.hashCode();
+            result = 31 * result + System.identityHashCode(registration);
+            result = 31 * result + (attributeName == null ? 0 : attributeName.hashCode());
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            // registrations are compared by identity, they are not expected to implement equals
+            return hashCode == other.hashCode
+                    && registration == other.registration
+                    && (attributeName == null ? other.attributeName == null : attributeName.equals(other.attributeName))
+                    && effects.equals(other.effects)
+                    && roles.equals(other.roles)
+                    && actionConstraints.equals(other.actionConstraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -117,7 +117,10 @@ public class DefaultPermissionFactory implements PermissionFactory, JmxPermissio
         return authorizerConfiguration.isNonFacadeMBeansSensitive();
     }
 
-    private PermissionCollection getUserPermissions(Set<String> roles) {
+    /**
+     * Gets the permissions of a caller whose roles have already been mapped.
+     */
+    PermissionCollection getUserPermissions(Set<String> roles) {
         PermissionCollection result = checkAllPermissions(roles);
         if (result != null) {
             return result;
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.access.rbac;
 
+import java.security.PermissionCollection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,9 +31,15 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.permission.AllPermissionsCollection;
 import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
 
 /**
@@ -46,6 +53,9 @@ import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
  * So, by adding the {@code roles} operation-header to the request the client can only reduce its privileges,
  * not increase them.
  * </p>
+ * <p>Decisions about resources and attributes are remembered, keyed by the caller's roles, the action and the
+ * target's resource registration, until the configuration changes. See {@link AuthorizationDecisionCache} for
+ * which decisions can be remembered.</p>
  *
  *
  * @author Brian Stansberry (c) 2013 Red Hat Inc.
@@ -85,6 +95,7 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
     private final DefaultPermissionFactory permissionFactory;
     private final RoleMapper roleMapper;
     private final Map<String, String> mappedToOfficialForm = Collections.synchronizedMap(new HashMap<String, String>());
+    private final AuthorizationDecisionCache decisionCache;
 
     private StandardRBACAuthorizer(final AuthorizerConfiguration configuration,
                                    final DefaultPermissionFactory permissionFactory, final RoleMapper roleMapper) {
@@ -93,6 +104,7 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         this.permissionFactory = permissionFactory;
         configuration.registerScopedRoleListener(permissionFactory);
         this.roleMapper = roleMapper;
+        this.decisionCache = new AuthorizationDecisionCache(configuration);
         for (StandardRole std : StandardRole.values()) {
             mappedToOfficialForm.put(std.toString(), std.getFormalName());
         }
@@ -113,6 +125,47 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         return result;
     }
 
+    @Override
+    public AuthorizationResult authorize(Caller caller, Environment callEnvironment, Action action, TargetAttribute target) {
+        if (callEnvironment.getProcessState() == ControlledProcessState.State.STARTING) {
+            return super.authorize(caller, callEnvironment, action, target);
+        }
+        final Map<AuthorizationDecisionCache.Key, AuthorizationResult> decisions = decisionCache.getDecisions();
+        final Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        final AuthorizationDecisionCache.Key key = decisions == null ? null
+                : AuthorizationDecisionCache.createKey(roles, action, target.getTargetResource(), target.getAttributeName());
+        AuthorizationResult result = key == null ? null : decisions.get(key);
+        if (result == null) {
+            // the roles are already mapped, so they are used directly rather than mapped again by the permission factory
+            result = authorize(permissionFactory.getUserPermissions(roles), permissionFactory.getRequiredPermissions(action, target));
+            if (key != null) {
+                AuthorizationDecisionCache.store(decisions, key, result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Caller caller, Environment callEnvironment, Action action, TargetResource target) {
+        if (callEnvironment.getProcessState() == ControlledProcessState.State.STARTING) {
+            return super.authorize(caller, callEnvironment, action, target);
+        }
+        final Map<AuthorizationDecisionCache.Key, AuthorizationResult> decisions = decisionCache.getDecisions();
+        final Set<String> roles = roleMapper.mapRoles(caller, callEnvironment, action, target);
+        final AuthorizationDecisionCache.Key key = decisions == null ? null
+                : AuthorizationDecisionCache.createKey(roles, action, target, null);
+        AuthorizationResult result = key == null ? null : decisions.get(key);
+        if (result == null) {
+            final PermissionCollection userPermissions = permissionFactory.getUserPermissions(roles);
+            result = userPermissions == AllPermissionsCollection.INSTANCE ? AuthorizationResult.PERMITTED
+                    : authorize(userPermissions, permissionFactory.getRequiredPermissions(action, target));
+            if (key != null) {
+                AuthorizationDecisionCache.store(decisions, key, result);
+            }
+        }
+        return result;
+    }
+
     private String getOfficialRoleForm(String role) {
         String official = mappedToOfficialForm.get(role);
         if (official == null) {
@@ -167,6 +167,21 @@ public interface AuditLogger {
             return false;
         }
 
+        @Override
+        public int getHandlerQueueLength(String name) {
+            return 0;
+        }
+
+        @Override
+        public long getHandlerBackpressureCount(String name) {
+            return 0;
+        }
+
+        @Override
+        public long getHandlerDroppedCount(String name) {
+            return 0;
+        }
+
         @Override
         public void updateHandlerMaxFailureCount(String name, int count) {
         }
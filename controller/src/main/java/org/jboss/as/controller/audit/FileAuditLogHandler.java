@@ -29,7 +29,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.services.path.PathManagerService;
@@ -38,6 +42,14 @@ import org.xnio.IoUtils;
 
 /**
  *  All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken.
+ * <p/>
+ * With {@link Durability#RECORD} every record is written and synced to disk before the call returns. With the
+ * other durability levels records are put in a bounded queue, and a dedicated writer thread drains the queue
+ * and writes everything it finds in one go. With {@link Durability#BATCH} the file is synced once per batch, so
+ * the records that arrive while a sync is in progress are committed together by the next one. Callers never wait
+ * for the writer, as they hold the audit logger's lock; if the queue is full the record is dropped, counted and
+ * logged. When the handler is stopped the writer finishes the queue, and anything it could not write in time is
+ * written by the stopping thread.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
@@ -47,17 +59,46 @@ public class FileAuditLogHandler extends AuditLogHandler {
     private static final SimpleDateFormat OLD_FILE_FORMATTER = new SimpleDateFormat("yyyy-MM-dd_HHmmss");
 
     private static final byte[] LINE_TERMINATOR = String.format("%n").getBytes();
+
+    /** The maximum number of records waiting for the writer */
+    private static final int QUEUE_SIZE = 8192;
+    /** The maximum number of records written and synced together */
+    private static final int MAX_BATCH = 1024;
+    /** How long stopping the handler waits for the writer to write the queued records */
+    private static final long STOP_TIMEOUT = 10000;
+
     private final PathManagerService pathManager;
     private final String path;
     private final String relativeTo;
+    private final Durability durability;
     private volatile File file;
+    private AsyncWriter writer;
+    private long backpressureCount;
+    private long droppedCount;
+    private boolean dropping;
+
+    /**
+     * How far a record has to get before writing it is considered done.
+     */
+    public enum Durability {
+        /** Each record is written and synced to disk before the management operation completes */
+        RECORD,
+        /** Records are written asynchronously, and synced to disk once per batch */
+        BATCH,
+        /** Records are written asynchronously, and left to the operating system to sync to disk */
+        OS
+    }
 
     public FileAuditLogHandler(String name, String formatterName, int maxFailureCount, PathManagerService pathManager, String path, String relativeTo) {
+        this(name, formatterName, maxFailureCount, pathManager, path, relativeTo, Durability.RECORD);
+    }
+
+    public FileAuditLogHandler(String name, String formatterName, int maxFailureCount, PathManagerService pathManager, String path, String relativeTo, Durability durability) {
         super(name, formatterName, maxFailureCount);
         this.pathManager = pathManager;
         this.path = path;
         this.relativeTo = relativeTo;
-        this.file = file;
+        this.durability = durability;
     }
 
     @Override
@@ -87,15 +128,28 @@ public class FileAuditLogHandler extends AuditLogHandler {
             throw new RuntimeException(e);
         }
         this.file = file;
+        if (durability != Durability.RECORD) {
+            writer = new AsyncWriter(file, durability == Durability.BATCH);
+            writer.start();
+        }
     }
 
     @Override
     void stop() {
+        if (writer != null) {
+            // write out what has been queued before the file can be backed up or replaced
+            writer.close(name);
+            writer = null;
+        }
         file = null;
     }
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
+        if (writer != null) {
+            enqueue(formattedItem);
+            return;
+        }
         final FileOutputStream fos = new FileOutputStream(file, true);
         final BufferedOutputStream output = new BufferedOutputStream(fos);
         try {
@@ -110,6 +164,53 @@ public class FileAuditLogHandler extends AuditLogHandler {
         }
     }
 
+    private void enqueue(String formattedItem) throws IOException {
+        // report a failure of the writer through the failure count of the handler
+        final IOException failure = writer.takeFailure();
+        if (failure != null) {
+            throw failure;
+        }
+        final byte[] record = formattedItem.getBytes();
+        if (writer.queue.size() >= QUEUE_SIZE / 2) {
+            // the writer is falling behind
+            backpressureCount++;
+        }
+        if (!writer.queue.offer(record)) {
+            droppedCount++;
+            if (!dropping) {
+                dropping = true;
+                ControllerLogger.MGMT_OP_LOGGER.auditLogRecordsDropped(name);
+            }
+            return;
+        }
+        dropping = false;
+    }
+
+    Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * @return the number of records waiting to be written
+     */
+    int getQueueLength() {
+        return writer == null ? 0 : writer.queue.size();
+    }
+
+    /**
+     * @return the number of records that were queued while the queue was at least half full
+     */
+    long getBackpressureCount() {
+        return backpressureCount;
+    }
+
+    /**
+     * @return the number of records that were dropped because the queue was full
+     */
+    long getDroppedCount() {
+        return droppedCount;
+    }
+
     boolean isDifferent(AuditLogHandler other){
         if (other instanceof FileAuditLogHandler == false){
             return true;
@@ -127,6 +228,9 @@ public class FileAuditLogHandler extends AuditLogHandler {
         if (!compare(relativeTo, otherHandler.relativeTo)){
             return true;
         }
+        if (durability != otherHandler.durability){
+            return true;
+        }
         return false;
     }
 
@@ -169,4 +273,133 @@ public class FileAuditLogHandler extends AuditLogHandler {
             file.delete();
         }
     }
+
+    /**
+     * Drains the queue on its own thread, writing each batch of records with a single write and at most one sync.
+     * The thread keeps going until it has been closed and the queue is empty.
+     */
+    private static final class AsyncWriter implements Runnable {
+
+        /** Queued by {@link #close(String)} to wake up the writer */
+        private static final byte[] STOP = new byte[0];
+
+        private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        private final File file;
+        private final boolean sync;
+        private final Thread thread;
+        private volatile IOException failure;
+        private volatile boolean closed;
+
+        private AsyncWriter(File file, boolean sync) {
+            this.file = file;
+            this.sync = sync;
+            this.thread = new Thread(this, "Management audit log writer - " + file.getName());
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        IOException takeFailure() {
+            final IOException failure = this.failure;
+            if (failure != null) {
+                this.failure = null;
+            }
+            return failure;
+        }
+
+        /**
+         * Waits for the writer to write the queued records. Records that it has not written when the wait times out
+         * are written by the calling thread, so nothing that was queued is lost.
+         */
+        void close(String name) {
+            closed = true;
+            // if the queue is full the writer is not waiting for a record anyway
+            queue.offer(STOP);
+            boolean interrupted = false;
+            final long deadline = System.currentTimeMillis() + STOP_TIMEOUT;
+            long remaining = STOP_TIMEOUT;
+            while (thread.isAlive() && remaining > 0) {
+                try {
+                    thread.join(remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+            final List<byte[]> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            rest.remove(STOP);
+            if (!rest.isEmpty()) {
+                try {
+                    write(rest);
+                } catch (IOException e) {
+                    ControllerLogger.MGMT_OP_LOGGER.auditLogRecordsNotWritten(e, rest.size(), name);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(List<byte[]> records) throws IOException {
+            final FileOutputStream fos = new FileOutputStream(file, true);
+            final BufferedOutputStream output = new BufferedOutputStream(fos);
+            try {
+                for (byte[] record : records) {
+                    output.write(record);
+                    output.write(LINE_TERMINATOR);
+                }
+                output.flush();
+                fos.getFD().sync();
+            } finally {
+                IoUtils.safeClose(output);
+            }
+        }
+
+        @Override
+        public void run() {
+            final List<byte[]> batch = new ArrayList<>(MAX_BATCH);
+            FileOutputStream fos = null;
+            BufferedOutputStream output = null;
+            try {
+                while (!closed || !queue.isEmpty()) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    batch.remove(STOP);
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        if (fos == null) {
+                            fos = new FileOutputStream(file, true);
+                            output = new BufferedOutputStream(fos);
+                        }
+                        for (byte[] record : batch) {
+                            output.write(record);
+                            output.write(LINE_TERMINATOR);
+                        }
+                        output.flush();
+                        if (sync) {
+                            fos.getFD().sync();
+                        }
+                    } catch (IOException e) {
+                        failure = e;
+                        // reopen the file for the next batch
+                        IoUtils.safeClose(output);
+                        IoUtils.safeClose(fos);
+                        fos = null;
+                        output = null;
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // not expected; whatever is still queued is written by close()
+            } finally {
+                IoUtils.safeClose(output);
+                IoUtils.safeClose(fos);
+            }
+        }
+    }
 }
@@ -173,6 +173,31 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     boolean getHandlerDisabledDueToFailure(String name);
 
+    /**
+     * Get the number of records waiting to be written by a handler which writes asynchronously
+     *
+     * @param name the name of the handler
+     * @return the number of queued records
+     */
+    int getHandlerQueueLength(String name);
+
+    /**
+     * Get the number of records which were queued while the queue of a handler which writes asynchronously was at
+     * least half full, i.e. while the writer was falling behind
+     *
+     * @param name the name of the handler
+     * @return the number of records which were queued behind a backlog
+     */
+    long getHandlerBackpressureCount(String name);
+
+    /**
+     * Get the number of records which were dropped because the queue of a handler which writes asynchronously was full
+     *
+     * @param name the name of the handler
+     * @return the number of dropped records
+     */
+    long getHandlerDroppedCount(String name);
+
     /**
      * Gets a formatter by its name
      *
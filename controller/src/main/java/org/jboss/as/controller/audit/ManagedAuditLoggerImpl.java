@@ -496,6 +496,39 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    @Override
+    public int getHandlerQueueLength(String name) {
+        config.lock();
+        try {
+            AuditLogHandler handler = config.getConfiguredHandler(name);
+            return handler instanceof FileAuditLogHandler ? ((FileAuditLogHandler) handler).getQueueLength() : 0;
+        } finally {
+            config.unlock();
+        }
+    }
+
+    @Override
+    public long getHandlerBackpressureCount(String name) {
+        config.lock();
+        try {
+            AuditLogHandler handler = config.getConfiguredHandler(name);
+            return handler instanceof FileAuditLogHandler ? ((FileAuditLogHandler) handler).getBackpressureCount() : 0;
+        } finally {
+            config.unlock();
+        }
+    }
+
+    @Override
+    public long getHandlerDroppedCount(String name) {
+        config.lock();
+        try {
+            AuditLogHandler handler = config.getConfiguredHandler(name);
+            return handler instanceof FileAuditLogHandler ? ((FileAuditLogHandler) handler).getDroppedCount() : 0;
+        } finally {
+            config.unlock();
+        }
+    }
+
 
     @Override
     public JsonAuditLogItemFormatter getJsonFormatter(String name) {
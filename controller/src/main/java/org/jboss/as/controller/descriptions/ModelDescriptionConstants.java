@@ -69,6 +69,7 @@ public class ModelDescriptionConstants {
     public static final String AUTHENTICATION = "authentication";
     public static final String AUTHORIZATION = "authorization";
     public static final String AUTO_START = "auto-start";
+    public static final String BACKPRESSURE_COUNT = "backpressure-count";
     public static final String BASE_DN = "base-dn";
     public static final String BASE_ROLE = "base-role";
     public static final String BLOCKING = "blocking";
@@ -133,7 +134,9 @@ public class ModelDescriptionConstants {
     public static final String DOMAIN_MODEL = "domain-model";
     public static final String DOMAIN_RESULTS = "domain-results";
     public static final String DOMAIN_UUID = "domain-uuid";
+    public static final String DROPPED_COUNT = "dropped-count";
     public static final String DUMP_SERVICES = "dump-services";
+    public static final String DURABILITY = "durability";
     public static final String ENABLE = "enable";
     public static final String ENABLED = "enabled";
     public static final String ENABLED_CIPHER_SUITES = "enabled-cipher-suites";
@@ -302,6 +305,7 @@ public class ModelDescriptionConstants {
     public static final String PROTOCOL = "protocol";
     public static final String PROVIDER = "provider";
     public static final String PROXIES = "proxies";
+    public static final String QUEUE_LENGTH = "queue-length";
     public static final String READ = "read";
     public static final String READ_ATTRIBUTE_OPERATION = "read-attribute";
     public static final String READ_ATTRIBUTE_GROUP_OPERATION = "read-attribute-group";
@@ -3308,4 +3308,12 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 387, value="Illegal path address '%s' , it is not in a correct CLI format")
     IllegalArgumentException illegalCLIStylePathAddress(String pathAddress);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 388, value = "The queue of audit log handler '%s' is full, audit log records are being dropped")
+    void auditLogRecordsDropped(String name);
+
+    @LogMessage(level = Level.ERROR)
+    @Message(id = 389, value = "Could not write %d queued records of audit log handler '%s'")
+    void auditLogRecordsNotWritten(@Cause Throwable cause, int count, String name);
 }
@@ -71,6 +71,7 @@ public enum Attribute {
     DESTINATION_ADDRESS("destination-address"),
     DIRECTORY_GROUPING("directory-grouping"),
     DESTINATION_PORT("destination-port"),
+    DURABILITY("durability"),
     ENABLED("enabled"),
     ENABLED_CIPHER_SUITES("enabled-cipher-suites"),
     ENABLED_PROTOCOLS("enabled-protocols"),
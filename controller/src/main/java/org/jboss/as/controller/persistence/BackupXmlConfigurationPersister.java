@@ -32,6 +32,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
@@ -40,6 +41,12 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * Whether configuration changes are written to the file in the background, see {@link DeferredConfigurationWriter}.
+     * Changes that fail to be written are then only logged, rather than failing the operation.
+     */
+    private static final boolean DEFERRED_WRITE = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.config.deferred-write", "false"));
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
     /**
@@ -77,11 +84,33 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        if (DEFERRED_WRITE) {
+            return new PersistenceResource() {
+                public void commit() {
+                    DeferredConfigurationWriter.getWriter(configurationFile).write(model, configurationFile, BackupXmlConfigurationPersister.this);
+                }
+
+                public void rollback() {
+                }
+            };
+        }
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        if (DEFERRED_WRITE) {
+            // a reload must see the changes made before it
+            DeferredConfigurationWriter.getWriter(configurationFile).flush();
+        }
+        return super.load();
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        if (DEFERRED_WRITE) {
+            DeferredConfigurationWriter.getWriter(configurationFile).flush();
+        }
         return configurationFile.snapshot();
     }
 
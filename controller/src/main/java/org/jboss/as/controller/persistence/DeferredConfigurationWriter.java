@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Writes committed configuration changes to a {@link ConfigurationFile} in the background, so the operations making
+ * the changes do not wait for the model to be marshalled and the file to be written.
+ * <p/>
+ * Only the latest committed model is written. If further changes are committed while the file is being written,
+ * they are written together once the current write is done, so a burst of changes results in a single write and a
+ * single history entry. The pending changes are written before the configuration is loaded or a snapshot is taken,
+ * and when the process exits.
+ */
+final class DeferredConfigurationWriter implements Runnable {
+
+    private static final ConcurrentMap<File, DeferredConfigurationWriter> WRITERS = new ConcurrentHashMap<>();
+
+    static {
+        final Thread hook = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (DeferredConfigurationWriter writer : WRITERS.values()) {
+                    writer.flush();
+                }
+            }
+        }, "Configuration writer shutdown");
+        try {
+            Runtime.getRuntime().addShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // already shutting down
+        }
+    }
+
+    private final File file;
+    // guarded by this
+    private ConfigurationFile configurationFile;
+    private AbstractConfigurationPersister persister;
+    private ModelNode model;
+    private boolean writing;
+
+    private DeferredConfigurationWriter(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the writer for a configuration file.
+     *
+     * @param configurationFile the configuration file
+     * @return the writer
+     */
+    static DeferredConfigurationWriter getWriter(final ConfigurationFile configurationFile) {
+        final File file = configurationFile.getMainFile().getAbsoluteFile();
+        DeferredConfigurationWriter writer = WRITERS.get(file);
+        if (writer == null) {
+            writer = new DeferredConfigurationWriter(file);
+            final DeferredConfigurationWriter existing = WRITERS.putIfAbsent(file, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Schedules a model to be written, replacing any model that has not been written yet.
+     *
+     * @param model the committed model, which must not be modified afterwards
+     * @param configurationFile the configuration file
+     * @param persister the persister used to marshal the model
+     */
+    synchronized void write(final ModelNode model, final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister) {
+        this.model = model;
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+        if (!writing) {
+            writing = true;
+            final Thread thread = new Thread(this, "Configuration writer for " + file.getName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Waits until all the models that have been scheduled are written.
+     */
+    synchronized void flush() {
+        boolean interrupted = false;
+        try {
+            while (writing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        for (;;) {
+            final ModelNode model;
+            final ConfigurationFile configurationFile;
+            final AbstractConfigurationPersister persister;
+            synchronized (this) {
+                if (this.model == null) {
+                    writing = false;
+                    notifyAll();
+                    return;
+                }
+                model = this.model;
+                configurationFile = this.configurationFile;
+                persister = this.persister;
+                this.model = null;
+                this.configurationFile = null;
+                this.persister = null;
+            }
+            try {
+                new ConfigurationFilePersistenceResource(model, configurationFile, persister).commit();
+            } catch (Throwable t) {
+                MGMT_OP_LOGGER.failedToStoreConfiguration(t, file.getName());
+            }
+        }
+    }
+}
@@ -27,7 +27,10 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -45,6 +48,8 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     /** The children. */
     private final Map<String, ResourceProvider> children = new LinkedHashMap<String, ResourceProvider>();
     private final boolean runtimeOnly;
+    /** The tree this resource belongs to, which decides whether children shared with other trees are copied on use */
+    private volatile Owner owner = new Owner();
 
     protected AbstractModelResource() {
         this(false);
@@ -60,7 +65,17 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         if(provider == null) {
             return null;
         }
-        return provider.get(address.getValue());
+        return getChild(provider, address.getValue());
+    }
+
+    private Resource getChild(final ResourceProvider provider, final String name) {
+        if (provider instanceof DefaultResourceProvider) {
+            final DefaultResourceProvider defaultProvider = (DefaultResourceProvider) provider;
+            final Owner owner = this.owner;
+            // a frozen tree is never modified, so it can keep sharing its children
+            return owner.frozen ? defaultProvider.read(name) : defaultProvider.get(name, owner);
+        }
+        return provider.get(name);
     }
 
     @Override
@@ -119,7 +134,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
         final Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>();
         for(final String name : provider.children()) {
-            final Resource resource = provider.get(name);
+            final Resource resource = getChild(provider, name);
             children.add(new DelegateResource(resource) {
                 @Override
                 public String getName() {
@@ -141,6 +156,9 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             throw new IllegalArgumentException();
         }
         getOrCreateProvider(address.getKey()).register(address.getValue(), resource);
+        if (resource instanceof AbstractModelResource) {
+            ((AbstractModelResource) resource).adopt(owner);
+        }
     }
 
     @Override
@@ -201,18 +219,124 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     public abstract Resource clone();
 
     protected void cloneProviders(AbstractModelResource clone) {
+        final boolean frozen = owner.frozen;
         synchronized (children) {
             for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
-                clone.registerResourceProvider(entry.getKey(), entry.getValue().clone());
+                final ResourceProvider provider = entry.getValue();
+                clone.registerResourceProvider(entry.getKey(), provider instanceof DefaultResourceProvider
+                        ? new DefaultResourceProvider((DefaultResourceProvider) provider, frozen, clone.owner)
+                        : provider.clone());
             }
         }
     }
 
+    /**
+     * Marks the tree this resource belongs to as frozen. A frozen tree must not be modified any more, e.g. because
+     * it has been published to concurrent readers, so navigating it no longer copies the children it still shares
+     * with its clones.
+     */
+    void freeze() {
+        owner.frozen = true;
+    }
+
+    /**
+     * Makes a resource that is new to our tree, and its children that are not shared with another tree, part of our tree.
+     */
+    private void adopt(final Owner owner) {
+        if (this.owner == owner) {
+            return;
+        }
+        this.owner = owner;
+        final Collection<ResourceProvider> providers;
+        synchronized (children) {
+            providers = new ArrayList<ResourceProvider>(children.values());
+        }
+        for (ResourceProvider provider : providers) {
+            if (provider instanceof DefaultResourceProvider) {
+                for (Resource child : ((DefaultResourceProvider) provider).unshared()) {
+                    if (child instanceof AbstractModelResource) {
+                        ((AbstractModelResource) child).adopt(owner);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a child resource for the purpose of reading it. Unlike {@link #getChild(PathElement)}, this does not
+     * take a private copy of a child that is still shared with the resource this one was cloned from, so the
+     * returned resource must not be modified.
+     *
+     * @param type the child type
+     * @param name the child name
+     * @return the child, or {@code null} if there is no such child
+     */
+    Resource readChild(final String type, final String name) {
+        final ResourceProvider provider = getProvider(type);
+        if (provider == null) {
+            return null;
+        }
+        return provider instanceof DefaultResourceProvider ? ((DefaultResourceProvider) provider).read(name) : provider.get(name);
+    }
+
+    /**
+     * The tree a resource belongs to. A clone starts a new tree, and the copies it makes of shared children join it.
+     */
+    static final class Owner {
+        private volatile boolean frozen;
+    }
+
+    /**
+     * {@link ResourceProvider} backing the children registered via {@link #registerChild(PathElement, Resource)}.
+     *
+     * <p>Cloning is done lazily where it is safe. A clone shares the child {@code Resource} instances that nobody
+     * modifies in place, i.e. all the children of a frozen tree (see {@link AbstractModelResource#freeze()}) and the
+     * children that the source itself still shares, and only clones such a child once it is handed out via
+     * {@link #get(String)}, which is the path by which callers obtain a resource they may modify. Any other child may
+     * already have been handed out by the source and still be modified through that reference, so it is copied
+     * when the clone is made. The source never changes what it shares. The result is that cloning a frozen tree and
+     * then modifying some part of the clone only copies the resources on the paths that were navigated to reach the
+     * modified resources; all other subtrees remain shared, and a modification of one tree is never visible in the
+     * other.</p>
+     */
     static class DefaultResourceProvider implements ResourceProvider {
 
-        private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        private final Map<String, Resource> children;
+        /** Names of children that are shared with another provider, and must be cloned before use */
+        private final Set<String> shared = new HashSet<String>();
 
         protected DefaultResourceProvider() {
+            this.children = new LinkedHashMap<String, Resource>();
+        }
+
+        /**
+         * Creates a clone of the given provider.
+         *
+         * @param source the provider to clone
+         * @param frozen whether the tree of {@code source} is frozen, so none of its children is modified any more
+         * @param owner the tree of the clone, or {@code null} if unknown
+         */
+        DefaultResourceProvider(final DefaultResourceProvider source, final boolean frozen, final Owner owner) {
+            this.children = new LinkedHashMap<String, Resource>();
+            synchronized (source.children) {
+                for (final Map.Entry<String, Resource> entry : source.children.entrySet()) {
+                    final String name = entry.getKey();
+                    if (frozen || source.shared.contains(name)) {
+                        children.put(name, entry.getValue());
+                        shared.add(name);
+                    } else {
+                        // the source may have handed this child out already, so it cannot be shared
+                        children.put(name, adopt(entry.getValue().clone(), owner));
+                    }
+                }
+            }
+        }
+
+        private static Resource adopt(final Resource resource, final Owner owner) {
+            if (owner != null && resource instanceof AbstractModelResource) {
+                ((AbstractModelResource) resource).adopt(owner);
+            }
+            return resource;
         }
 
         @Override
@@ -231,6 +355,35 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
         @Override
         public Resource get(String name) {
+            return get(name, null);
+        }
+
+        Resource get(String name, Owner owner) {
+            synchronized (children) {
+                final Resource resource = children.get(name);
+                if (resource != null && shared.remove(name)) {
+                    // First use since the child was shared; take our own copy
+                    final Resource copy = adopt(resource.clone(), owner);
+                    children.put(name, copy);
+                    return copy;
+                }
+                return resource;
+            }
+        }
+
+        Collection<Resource> unshared() {
+            synchronized (children) {
+                final Collection<Resource> result = new ArrayList<Resource>(children.size());
+                for (Map.Entry<String, Resource> entry : children.entrySet()) {
+                    if (!shared.contains(entry.getKey())) {
+                        result.add(entry.getValue());
+                    }
+                }
+                return result;
+            }
+        }
+
+        Resource read(String name) {
             synchronized (children) {
                 return children.get(name);
             }
@@ -238,7 +391,9 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
 
         @Override
         public boolean hasChildren() {
-            return ! children().isEmpty();
+            synchronized (children) {
+                return !children.isEmpty();
+            }
         }
 
         @Override
@@ -254,19 +409,14 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         @Override
         public Resource remove(String name) {
             synchronized (children) {
+                shared.remove(name);
                 return children.remove(name);
             }
         }
 
         @Override
         public ResourceProvider clone() {
-            final DefaultResourceProvider provider = new DefaultResourceProvider();
-            synchronized (children) {
-                for (final Map.Entry<String, Resource> entry : children.entrySet()) {
-                    provider.register(entry.getKey(), entry.getValue().clone());
-                }
-            }
-            return provider;
+            return new DefaultResourceProvider(this, false, null);
         }
     }
 
@@ -31,6 +31,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationStepHandler;
@@ -59,7 +60,9 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
     private final String valueString;
     private final NodeSubregistry parent;
     private final PathAddress pathAddress;
-    private RootInvocation rootInvocation;
+    private volatile RootInvocation rootInvocation;
+    /** Only used on the root registration, see {@link #getModificationCount()} */
+    private final AtomicLong modificationCount = new AtomicLong();
 
     AbstractResourceRegistration(final String valueString, final NodeSubregistry parent) {
         checkPermission();
@@ -79,6 +82,24 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         return parent;
     }
 
+    /**
+     * Records that this registration has been modified, e.g. that an attribute, operation or child has been
+     * registered or unregistered.
+     */
+    void modified() {
+        getRootResourceRegistration().modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of times any registration in the tree this registration belongs to has been modified. Any
+     * information derived from the registrations, such as the descriptions, is stale once this has changed.
+     *
+     * @return the modification count
+     */
+    long getModificationCount() {
+        return getRootResourceRegistration().modificationCount.get();
+    }
+
     void addAccessConstraints(List<AccessConstraintDefinition> list) {
         // no-op in the base class
     }
@@ -448,8 +469,8 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
     abstract void getInheritedNotificationEntries(final Map<String, NotificationEntry> providers);
 
     private RootInvocation getRootInvocation() {
-        RootInvocation result = null;
-        if (parent != null) {
+        RootInvocation result = rootInvocation;
+        if (result == null && parent != null) {
             synchronized (this) {
                 if (rootInvocation == null) {
                     NodeSubregistry ancestorSubregistry = parent;
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A {@link DescriptionProvider} that remembers the descriptions created by another provider, per locale, until the
+ * registration tree is modified.
+ * <p/>
+ * Descriptions are resolved from resource bundles and assembled from the registered attributes, operations and
+ * children, which is expensive compared to copying an already assembled description. Every caller is given its own
+ * copy, as callers commonly modify the description they are given.
+ */
+final class CachedDescriptionProvider implements DescriptionProvider {
+
+    /** The key for the {@code null} locale, which {@link ConcurrentHashMap} does not accept */
+    private static final Object DEFAULT_LOCALE = new Object();
+
+    private final AbstractResourceRegistration registration;
+    private final DescriptionProvider delegate;
+    private volatile Descriptions descriptions;
+
+    /**
+     * Creates a new CachedDescriptionProvider.
+     *
+     * @param registration the registration whose tree's modifications invalidate the descriptions. Cannot be {@code null}
+     * @param delegate the provider creating the descriptions. Cannot be {@code null}
+     */
+    CachedDescriptionProvider(final AbstractResourceRegistration registration, final DescriptionProvider delegate) {
+        this.registration = registration;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ModelNode getModelDescription(final Locale locale) {
+        // read the modification count before creating a description, so a description created from a registration
+        // that is being modified is never cached as current
+        final long modificationCount = registration.getModificationCount();
+        Descriptions current = descriptions;
+        if (current == null || current.modificationCount != modificationCount) {
+            current = new Descriptions(modificationCount);
+            descriptions = current;
+        }
+        final Object key = locale == null ? DEFAULT_LOCALE : locale;
+        ModelNode description = current.map.get(key);
+        if (description == null) {
+            description = delegate.getModelDescription(locale);
+            if (description == null) {
+                return null;
+            }
+            current.map.put(key, description);
+        }
+        return description.clone();
+    }
+
+    private static final class Descriptions {
+        private final long modificationCount;
+        private final Map<Object, ModelNode> map = new ConcurrentHashMap<Object, ModelNode>();
+
+        private Descriptions(final long modificationCount) {
+            this.modificationCount = modificationCount;
+        }
+    }
+}
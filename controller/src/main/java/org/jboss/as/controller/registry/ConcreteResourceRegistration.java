@@ -31,6 +31,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +68,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     private volatile Map<String, NotificationEntry> notifications;
 
     private final ResourceDefinition resourceDefinition;
+    private final DescriptionProvider descriptionProvider;
     private final List<AccessConstraintDefinition> accessConstraintDefinitions;
 
     @SuppressWarnings("unused")
@@ -89,6 +91,12 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         attributesUpdater.clear(this);
         notificationsUpdater.clear(this);
         this.resourceDefinition = definition;
+        this.descriptionProvider = new CachedDescriptionProvider(this, new DescriptionProvider() {
+            @Override
+            public ModelNode getModelDescription(Locale locale) {
+                return resourceDefinition.getDescriptionProvider(ConcreteResourceRegistration.this).getModelDescription(locale);
+            }
+        });
         this.runtimeOnly.set(runtimeOnly);
         this.accessConstraintDefinitions = buildAccessConstraints();
     }
@@ -103,6 +111,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     public void setRuntimeOnly(final boolean runtimeOnly) {
         checkPermission();
         this.runtimeOnly.set(runtimeOnly);
+        modified();
     }
 
     @Override
@@ -169,10 +178,11 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     @Override
     public void registerOperationHandler(OperationDefinition definition, OperationStepHandler handler, boolean inherited) {
         checkPermission();
-        if (operationsUpdater.putIfAbsent(this, definition.getName(), new OperationEntry(handler, definition.getDescriptionProvider(), inherited, definition.getEntryType(),
+        if (operationsUpdater.putIfAbsent(this, definition.getName(), new OperationEntry(handler, cached(definition.getDescriptionProvider()), inherited, definition.getEntryType(),
                 definition.getFlags(), definition.getAccessConstraints())) != null) {
             throw alreadyRegistered("operation handler", definition.getName());
         }
+        modified();
         registerOperationAccessConstraints(definition);
     }
 
@@ -250,17 +260,19 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     @Override
     public void registerOperationHandler(final String operationName, final OperationStepHandler handler, final DescriptionProvider descriptionProvider, final boolean inherited, EntryType entryType) {
         checkPermission();
-        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType)) != null) {
+        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, cached(descriptionProvider), inherited, entryType)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        modified();
     }
 
     @Override
     public void registerOperationHandler(final String operationName, final OperationStepHandler handler, final DescriptionProvider descriptionProvider, final boolean inherited, EntryType entryType, EnumSet<OperationEntry.Flag> flags) {
         checkPermission();
-        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType, flags, null)) != null) {
+        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, cached(descriptionProvider), inherited, entryType, flags, null)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        modified();
     }
 
     @Override
@@ -269,6 +281,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
         }
+        modified();
     }
 
     @Override
@@ -281,6 +294,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        modified();
         registerAttributeAccessConstraints(definition);
     }
 
@@ -291,6 +305,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        modified();
     }
 
     @Override
@@ -303,6 +318,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        modified();
         registerAttributeAccessConstraints(definition);
     }
 
@@ -310,15 +326,17 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     public void unregisterAttribute(String attributeName) {
         checkPermission();
         attributesUpdater.remove(this, attributeName);
+        modified();
     }
 
     @Override
     public void registerNotification(NotificationDefinition notification, boolean inherited) {
-        NotificationEntry entry = new NotificationEntry(notification.getDescriptionProvider(), inherited);
+        NotificationEntry entry = new NotificationEntry(cached(notification.getDescriptionProvider()), inherited);
         checkPermission();
         if (notificationsUpdater.putIfAbsent(this, notification.getType(), entry) != null) {
             throw alreadyRegistered(NOTIFICATION, notification.getType());
         }
+        modified();
     }
 
     @Override
@@ -330,6 +348,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
          public void unregisterNotification(String notificationType) {
         checkPermission();
         notificationsUpdater.remove(this, notificationType);
+        modified();
     }
 
 
@@ -340,9 +359,14 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, definition.getName(), aa) != null) {
             throw alreadyRegistered("attribute", definition.getName());
         }
+        modified();
         registerAttributeAccessConstraints(definition);
     }
 
+    private DescriptionProvider cached(DescriptionProvider provider) {
+        return provider == null ? null : new CachedDescriptionProvider(this, provider);
+    }
+
     private void registerAttributeAccessConstraints(AttributeDefinition ad) {
         if (constraintUtilizationRegistry != null) {
             for (AccessConstraintDefinition acd : ad.getAccessConstraints()) {
@@ -464,7 +488,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getModelDescription(iterator, next.getValue());
         } else {
             checkPermission();
-            return resourceDefinition.getDescriptionProvider(this);
+            return descriptionProvider;
         }
     }
 
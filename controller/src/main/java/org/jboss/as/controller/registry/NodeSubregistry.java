@@ -84,6 +84,7 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        parent.modified();
         return newRegistry;
     }
 
@@ -93,6 +94,7 @@ final class NodeSubregistry {
         if (appearingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        parent.modified();
         //register(elementValue, newRegistry);
         return newRegistry;
     }
@@ -100,6 +102,7 @@ final class NodeSubregistry {
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.modified();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -108,18 +111,21 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        parent.modified();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.modified();
     }
 
 
     void unregisterSubModel(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        parent.modified();
     }
 
     OperationEntry getOperationEntry(final ListIterator<PathElement> iterator, final String child, final String operationName, OperationEntry inherited) {
@@ -213,6 +213,19 @@ public interface Resource extends Cloneable {
 
         private Tools() { }
 
+        /**
+         * Marks a resource tree as frozen. A frozen tree must not be modified in place any more, e.g. because it has
+         * been published to concurrent readers. Reading a frozen tree then never copies the children it still shares
+         * with its clones.
+         *
+         * @param resource the root resource of the tree
+         */
+        public static void freeze(final Resource resource) {
+            if (resource instanceof AbstractModelResource) {
+                ((AbstractModelResource) resource).freeze();
+            }
+        }
+
         /**
          * Recursively reads an entire resource tree, ignoring runtime-only and proxy resources, and generates
          * a DMR tree representing all of the non-ignored resources.
@@ -260,9 +273,20 @@ public interface Resource extends Cloneable {
                 final int newLevel = level == -1 ? -1 : level - 1;
                 for(final String childType : resource.getChildTypes()) {
                     model.get(childType).setEmptyObject();
-                    for(final ResourceEntry entry : resource.getChildren(childType)) {
-                        if(filter.accepts(address.append(entry.getPathElement()), resource)) {
-                            model.get(childType, entry.getName()).set(readModel(entry, newLevel));
+                    if (resource instanceof AbstractModelResource) {
+                        // Read the children without forcing a copy of those still shared with another tree
+                        final AbstractModelResource modelResource = (AbstractModelResource) resource;
+                        for(final String childName : resource.getChildrenNames(childType)) {
+                            final Resource child = modelResource.readChild(childType, childName);
+                            if(child != null && filter.accepts(address.append(PathElement.pathElement(childType, childName)), resource)) {
+                                model.get(childType, childName).set(readModel(child, newLevel));
+                            }
+                        }
+                    } else {
+                        for(final ResourceEntry entry : resource.getChildren(childType)) {
+                            if(filter.accepts(address.append(entry.getPathElement()), resource)) {
+                                model.get(childType, entry.getName()).set(readModel(entry, newLevel));
+                            }
                         }
                     }
                 }
@@ -57,7 +57,10 @@ class ResourceTransformationContextImpl implements ResourceTransformationContext
 
     static ResourceTransformationContext create(final OperationContext context, final TransformationTarget target, final PathAddress current, final PathAddress read, boolean skipRuntimeIgnoreCheck) {
         final Resource root = Resource.Factory.create();
-        final Resource original = context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true);
+        Resource original = context.getAttachment(Transformers.ORIGINAL_MODEL);
+        if (original == null) {
+            original = context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true);
+        }
         final ImmutableManagementResourceRegistration registration = context.getRootResourceRegistration().getSubModel(PathAddress.EMPTY_ADDRESS);
         final OriginalModel originalModel = new OriginalModel(original, context.getRunningMode(), context.getProcessType(), target, registration);
         return new ResourceTransformationContextImpl(root, current, read, originalModel, skipRuntimeIgnoreCheck);
@@ -41,6 +41,13 @@ import org.jboss.dmr.ModelNode;
  */
 public interface Transformers {
 
+    /**
+     * Operation context attachment for a copy of the whole model, which is read by the transformations for several
+     * targets instead of each of them copying the model. It must only be attached while the model cannot change, and
+     * the transformers must not modify it.
+     */
+    OperationContext.AttachmentKey<Resource> ORIGINAL_MODEL = OperationContext.AttachmentKey.create(Resource.class);
+
     /**
      * Get information about the target.
      *
@@ -53,8 +53,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
@@ -406,6 +408,41 @@ public class ModelControllerImplUnitTestCase {
         operation.get(CHILD_TYPE).set("child");
     }
 
+    /**
+     * Test that a read-only operation sees the model that was published when it started, even if a write
+     * operation publishes a new model while it executes.
+     */
+    @Test
+    public void testReadOnlyOperationSeesStableModel() throws Exception {
+        final BlockingReadHandler blocking = BlockingReadHandler.INSTANCE;
+        blocking.reset();
+        final AtomicReference<ModelNode> readResult = new AtomicReference<ModelNode>();
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ModelNode operation = new ModelNode();
+                operation.get(OP).set("blocking-read");
+                operation.get(OP_ADDR).setEmptyList();
+                readResult.set(controller.execute(operation, null, null, null));
+            }
+        });
+        reader.start();
+        try {
+            assertTrue(blocking.entered.await(10, TimeUnit.SECONDS));
+
+            ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        } finally {
+            blocking.release.countDown();
+            reader.join(10000);
+        }
+
+        ModelNode result = readResult.get();
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT).get(0).asInt());
+        assertEquals(1, result.get(RESULT).get(1).asInt());
+    }
+
     @Test
     public void testReloadRequired() throws Exception {
         ModelNode result = controller.execute(getOperation("reload-required", "attr1", 5), null, null, null);
@@ -643,6 +680,9 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler(getOD("remove-dependent-service"), new ModelControllerImplUnitTestCase.RemoveDependentServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("read-wildcards"), new ModelControllerImplUnitTestCase.WildcardReadHandler(),true);
             rootRegistration.registerOperationHandler(getOD("invalid-service-update"), new ModelControllerImplUnitTestCase.InvalidServiceUpdateHandler(),true);
+            rootRegistration.registerOperationHandler(new SimpleOperationDefinitionBuilder("blocking-read", new NonResolvingResourceDescriptionResolver())
+                    .setReadOnly()
+                    .build(), BlockingReadHandler.INSTANCE, true);
 
             GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
 
@@ -696,6 +736,33 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    static class BlockingReadHandler implements OperationStepHandler {
+
+        static final BlockingReadHandler INSTANCE = new BlockingReadHandler();
+
+        private volatile CountDownLatch entered;
+        private volatile CountDownLatch release;
+
+        void reset() {
+            entered = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            // read the model before and after a concurrent write has been published
+            context.getResult().add(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1").asInt());
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationFailedException(e.toString());
+            }
+            context.getResult().add(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1").asInt());
+        }
+    }
+
     public static class ModelStageFailsHandler implements OperationStepHandler {
 
         @Override
@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.access.rbac;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.Caller;
+import org.jboss.as.controller.access.CombinationPolicy;
+import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.TargetAttribute;
+import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.constraint.SensitivityClassification;
+import org.jboss.as.controller.access.constraint.VaultExpressionSensitivityConfig;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link AuthorizationDecisionCache}.
+ */
+public class AuthorizationDecisionCacheTestCase {
+
+    private static final SensitivityClassification SENSITIVE = new SensitivityClassification("test", "cache", false, true, false);
+
+    private static final ManagementResourceRegistration ROOT_RR = ManagementResourceRegistration.Factory.create(new SimpleResourceDefinition(null, new NonResolvingResourceDescriptionResolver()) {
+        @Override
+        public List<AccessConstraintDefinition> getAccessConstraints() {
+            return Collections.<AccessConstraintDefinition>singletonList(new SensitiveTargetAccessConstraintDefinition(SENSITIVE));
+        }
+    });
+
+    private static final PathAddress ADDRESS_A = PathAddress.pathAddress("subsystem", "a");
+    private static final PathAddress ADDRESS_B = PathAddress.pathAddress("subsystem", "b");
+    private static final PathAddress MANAGEMENT_ADDRESS = PathAddress.pathAddress(CORE_SERVICE, MANAGEMENT);
+
+    private static final Set<String> MONITOR = Collections.singleton(StandardRole.MONITOR.name());
+
+    private WritableAuthorizerConfiguration configuration;
+    private TestRoleMapper roleMapper;
+    private StandardRBACAuthorizer authorizer;
+    private Caller caller;
+    private Environment environment;
+
+    @Before
+    public void setUp() {
+        configuration = new WritableAuthorizerConfiguration(StandardRBACAuthorizer.AUTHORIZER_DESCRIPTION);
+        roleMapper = new TestRoleMapper();
+        authorizer = StandardRBACAuthorizer.create(configuration, roleMapper);
+        caller = Caller.createCaller(null);
+        ControlledProcessState processState = new ControlledProcessState(false);
+        processState.setRunning();
+        environment = new Environment(processState, ProcessType.EMBEDDED_SERVER);
+    }
+
+    @After
+    public void tearDown() {
+        SENSITIVE.setConfiguredRequiresReadPermission(null);
+        VaultExpressionSensitivityConfig.INSTANCE.setConfiguredRequiresReadPermission(null);
+    }
+
+    @Test
+    public void testKeys() {
+        Action read = readAction(ADDRESS_A);
+        AuthorizationDecisionCache.Key key = AuthorizationDecisionCache.createKey(MONITOR, read, target(ADDRESS_A), null);
+        assertNotNull(key);
+        // the same registration at a different address has the same key
+        assertEquals(key, AuthorizationDecisionCache.createKey(MONITOR, readAction(ADDRESS_B), target(ADDRESS_B), null));
+
+        Set<String> operator = Collections.singleton(StandardRole.OPERATOR.name());
+        assertNotEquals(key, AuthorizationDecisionCache.createKey(operator, read, target(ADDRESS_A), null));
+        // attribute values may be vault expressions, which are sensitive to read by default
+        assertNull(AuthorizationDecisionCache.createKey(MONITOR, read, target(ADDRESS_A), "attr"));
+        VaultExpressionSensitivityConfig.INSTANCE.setConfiguredRequiresReadPermission(false);
+        assertNotEquals(key, AuthorizationDecisionCache.createKey(MONITOR, read, target(ADDRESS_A), "attr"));
+
+        Action write = new Action(Util.createEmptyOperation("write", ADDRESS_A), null, EnumSet.of(Action.ActionEffect.ADDRESS,
+                Action.ActionEffect.READ_CONFIG, Action.ActionEffect.WRITE_CONFIG));
+        assertNull(AuthorizationDecisionCache.createKey(MONITOR, write, target(ADDRESS_A), null));
+        assertNull(AuthorizationDecisionCache.createKey(MONITOR, readAction(MANAGEMENT_ADDRESS), target(MANAGEMENT_ADDRESS), null));
+    }
+
+    @Test
+    public void testDecisionIsCached() {
+        AuthorizationResult first = authorizer.authorize(caller, environment, readAction(ADDRESS_A), target(ADDRESS_A));
+        assertEquals(AuthorizationResult.Decision.DENY, first.getDecision());
+        assertSame(first, authorizer.authorize(caller, environment, readAction(ADDRESS_B), target(ADDRESS_B)));
+
+        VaultExpressionSensitivityConfig.INSTANCE.setConfiguredRequiresReadPermission(false);
+        TargetAttribute attribute = new TargetAttribute("attr", null, new ModelNode(), target(ADDRESS_A));
+        AuthorizationResult attributeResult = authorizer.authorize(caller, environment, readAction(ADDRESS_A), attribute);
+        assertEquals(AuthorizationResult.Decision.DENY, attributeResult.getDecision());
+        assertSame(attributeResult, authorizer.authorize(caller, environment, readAction(ADDRESS_A), attribute));
+    }
+
+    @Test
+    public void testRolesMappedOnce() {
+        authorizer.authorize(caller, environment, readAction(ADDRESS_A), target(ADDRESS_A));
+        assertEquals(1, roleMapper.mapped);
+        authorizer.authorize(caller, environment, readAction(ADDRESS_B), target(ADDRESS_B));
+        assertEquals(2, roleMapper.mapped);
+        // decisions that are not cached are made with the roles mapped for the key too
+        authorizer.authorize(caller, environment, readAction(ADDRESS_A), new TargetAttribute("attr", null, new ModelNode(), target(ADDRESS_A)));
+        assertEquals(3, roleMapper.mapped);
+    }
+
+    @Test
+    public void testSensitivityChangeClearsCache() {
+        assertEquals(AuthorizationResult.Decision.DENY,
+                authorizer.authorize(caller, environment, readAction(ADDRESS_A), target(ADDRESS_A)).getDecision());
+        SENSITIVE.setConfiguredRequiresReadPermission(false);
+        assertEquals(AuthorizationResult.Decision.PERMIT,
+                authorizer.authorize(caller, environment, readAction(ADDRESS_A), target(ADDRESS_A)).getDecision());
+        SENSITIVE.setConfiguredRequiresReadPermission(true);
+        assertEquals(AuthorizationResult.Decision.DENY,
+                authorizer.authorize(caller, environment, readAction(ADDRESS_A), target(ADDRESS_A)).getDecision());
+    }
+
+    @Test
+    public void testConfigurationChangeClearsCache() {
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(configuration);
+        Map<AuthorizationDecisionCache.Key, AuthorizationResult> decisions = cache.getDecisions();
+        assertSame(decisions, cache.getDecisions());
+        AuthorizationDecisionCache.store(decisions,
+                AuthorizationDecisionCache.createKey(MONITOR, readAction(ADDRESS_A), target(ADDRESS_A), null),
+                AuthorizationResult.PERMITTED);
+        configuration.setPermissionCombinationPolicy(CombinationPolicy.REJECTING);
+        Map<AuthorizationDecisionCache.Key, AuthorizationResult> changed = cache.getDecisions();
+        assertNotSame(decisions, changed);
+        assertEquals(0, changed.size());
+    }
+
+    private static void assertNotEquals(Object expected, Object actual) {
+        assertNotNull(actual);
+        assertEquals(false, expected.equals(actual));
+    }
+
+    private static Action readAction(PathAddress address) {
+        return new Action(Util.createEmptyOperation("read", address), null, EnumSet.of(Action.ActionEffect.ADDRESS,
+                Action.ActionEffect.READ_CONFIG, Action.ActionEffect.READ_RUNTIME));
+    }
+
+    private static TargetResource target(PathAddress address) {
+        return TargetResource.forStandalone(address, ROOT_RR, null);
+    }
+
+    private static final class TestRoleMapper implements RoleMapper {
+
+        private int mapped;
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Action action, TargetAttribute attribute) {
+            mapped++;
+            return MONITOR;
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Action action, TargetResource resource) {
+            mapped++;
+            return MONITOR;
+        }
+
+        @Override
+        public Set<String> mapRoles(Caller caller, Environment callEnvironment, Set<String> operationHeaderRoles) {
+            return MONITOR;
+        }
+
+        @Override
+        public boolean canRunAs(Set<String> mappedRoles, String runAsRole) {
+            return false;
+        }
+    }
+}
@@ -648,6 +648,29 @@ public class PersistanceResourceTestCase {
 
     }
 
+    @Test
+    public void testDeferredWrites() throws Exception {
+        assertFileContents(standardFile, "std");
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestConfigurationFilePersister persister = new TestConfigurationFilePersister(configurationFile);
+        configurationFile.successfulBoot();
+        checkFiles(null, "std", "std", "std", "std");
+
+        DeferredConfigurationWriter writer = DeferredConfigurationWriter.getWriter(configurationFile);
+        Assert.assertSame(writer, DeferredConfigurationWriter.getWriter(configurationFile));
+        writer.write(new ModelNode("One"), configurationFile, persister);
+        writer.flush();
+        checkFiles(null, "One", "std", "std", "One", "std");
+
+        // A burst of changes is written as the latest one
+        for (int i = 0; i < 20; i++) {
+            writer.write(new ModelNode("Change" + i), configurationFile, persister);
+        }
+        writer.flush();
+        assertFileContents(standardFile, "Change19");
+        assertFileContents(lastFile, "Change19");
+    }
+
     private String addSuffix(File file, String suffix) throws IOException {
         StringBuilder builder = new StringBuilder(file.getParentFile().getCanonicalPath());
         System.out.println(builder);
@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the lazy cloning of {@link BasicResource} trees.
+ */
+public class BasicResourceCloneUnitTestCase {
+
+    private static final int PROFILES = 50;
+    private static final int SUBSYSTEMS = 100;
+    private static final int CHILDREN = 10;
+
+    private Resource root;
+
+    @Before
+    public void setup() {
+        // 50 * 100 * 10 = 50k leaf resources
+        root = Resource.Factory.create();
+        for (int i = 0; i < PROFILES; i++) {
+            Resource profile = Resource.Factory.create();
+            root.registerChild(PathElement.pathElement("profile", "p" + i), profile);
+            for (int j = 0; j < SUBSYSTEMS; j++) {
+                Resource subsystem = Resource.Factory.create();
+                subsystem.getModel().get("attr").set(j);
+                profile.registerChild(PathElement.pathElement("subsystem", "s" + j), subsystem);
+                for (int k = 0; k < CHILDREN; k++) {
+                    Resource child = Resource.Factory.create();
+                    child.getModel().get("attr").set(k);
+                    subsystem.registerChild(PathElement.pathElement("child", "c" + k), child);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnmodifiedSubtreesAreShared() {
+        final PathAddress target = PathAddress.pathAddress(PathElement.pathElement("profile", "p1"),
+                PathElement.pathElement("subsystem", "s1"), PathElement.pathElement("child", "c1"));
+
+        Resource.Tools.freeze(root);
+        Resource clone = root.clone();
+        clone.navigate(target).getModel().get("attr").set(100);
+
+        // The original tree is untouched
+        assertEquals(1, root.navigate(target).getModel().get("attr").asInt());
+        assertEquals(100, clone.navigate(target).getModel().get("attr").asInt());
+
+        // Only the path to the modified resource was copied
+        AbstractModelResource originalProfile = (AbstractModelResource) ((AbstractModelResource) root).readChild("profile", "p1");
+        AbstractModelResource clonedProfile = (AbstractModelResource) ((AbstractModelResource) clone).readChild("profile", "p1");
+        assertNotSame(originalProfile, clonedProfile);
+        assertNotSame(originalProfile.readChild("subsystem", "s1"), clonedProfile.readChild("subsystem", "s1"));
+        assertSame(originalProfile.readChild("subsystem", "s2"), clonedProfile.readChild("subsystem", "s2"));
+        assertSame(((AbstractModelResource) root).readChild("profile", "p2"), ((AbstractModelResource) clone).readChild("profile", "p2"));
+    }
+
+    @Test
+    public void testCloneOfClone() {
+        final PathElement profile = PathElement.pathElement("profile", "p3");
+        final PathElement subsystem = PathElement.pathElement("subsystem", "s3");
+
+        Resource first = root.clone();
+        first.requireChild(profile).requireChild(subsystem).getModel().get("attr").set(-1);
+
+        Resource second = first.clone();
+        second.requireChild(profile).removeChild(subsystem);
+        second.requireChild(profile).registerChild(PathElement.pathElement("subsystem", "new"), Resource.Factory.create());
+
+        assertEquals(3, root.requireChild(profile).requireChild(subsystem).getModel().get("attr").asInt());
+        assertEquals(-1, first.requireChild(profile).requireChild(subsystem).getModel().get("attr").asInt());
+        assertTrue(first.requireChild(profile).getChildrenNames("subsystem").contains("s3"));
+        assertEquals(SUBSYSTEMS, first.requireChild(profile).getChildrenNames("subsystem").size());
+        assertEquals(SUBSYSTEMS, second.requireChild(profile).getChildrenNames("subsystem").size());
+        assertTrue(second.requireChild(profile).hasChild(PathElement.pathElement("subsystem", "new")));
+    }
+
+    @Test
+    public void testReadModelOfClone() {
+        Resource clone = root.clone();
+        clone.requireChild(PathElement.pathElement("profile", "p0")).getModel().get("attr").set(true);
+
+        ModelNode model = Resource.Tools.readModel(clone);
+        assertEquals(PROFILES, model.get("profile").keys().size());
+        assertTrue(model.get("profile", "p0", "attr").asBoolean());
+        assertEquals(CHILDREN, model.get("profile", "p49", "subsystem", "s99", "child").keys().size());
+        assertEquals(Resource.Tools.readModel(root).get("profile", "p1"), model.get("profile", "p1"));
+    }
+
+    @Test
+    public void testSourceChangesAreNotVisibleInClone() {
+        final PathElement profile = PathElement.pathElement("profile", "p4");
+        final PathElement subsystem = PathElement.pathElement("subsystem", "s4");
+        final PathElement child = PathElement.pathElement("child", "c4");
+
+        Resource clone = root.clone();
+        root.requireChild(profile).requireChild(subsystem).requireChild(child).getModel().get("attr").set(-1);
+        root.requireChild(profile).removeChild(PathElement.pathElement("subsystem", "s5"));
+        root.requireChild(profile).registerChild(PathElement.pathElement("subsystem", "new"), Resource.Factory.create());
+        for (Resource.ResourceEntry entry : root.requireChild(profile).getChildren("subsystem")) {
+            entry.getModel().get("attr").set(-2);
+        }
+
+        assertEquals(4, clone.requireChild(profile).requireChild(subsystem).requireChild(child).getModel().get("attr").asInt());
+        assertEquals(5, clone.requireChild(profile).requireChild(PathElement.pathElement("subsystem", "s5")).getModel().get("attr").asInt());
+        assertFalse(clone.requireChild(profile).hasChild(PathElement.pathElement("subsystem", "new")));
+        assertEquals(SUBSYSTEMS, clone.requireChild(profile).getChildrenNames("subsystem").size());
+        assertEquals(-1, root.requireChild(profile).requireChild(subsystem).requireChild(child).getModel().get("attr").asInt());
+        assertEquals(-2, root.requireChild(profile).requireChild(subsystem).getModel().get("attr").asInt());
+    }
+
+    @Test
+    public void testChangesThroughHandedOutResourcesAfterClone() {
+        final PathAddress target = PathAddress.pathAddress(PathElement.pathElement("profile", "p7"),
+                PathElement.pathElement("subsystem", "s7"));
+        Resource.Tools.freeze(root);
+
+        // read for update, clone, then modify
+        Resource working = root.clone();
+        Resource subsystem = working.navigate(target);
+        Resource snapshot = working.clone();
+        subsystem.getModel().get("attr").set(-1);
+        subsystem.registerChild(PathElement.pathElement("child", "new"), Resource.Factory.create());
+
+        assertSame(subsystem, working.navigate(target));
+        assertEquals(-1, working.navigate(target).getModel().get("attr").asInt());
+        assertEquals(7, snapshot.navigate(target).getModel().get("attr").asInt());
+        assertFalse(snapshot.navigate(target).hasChild(PathElement.pathElement("child", "new")));
+        assertEquals(7, root.navigate(target).getModel().get("attr").asInt());
+
+        // the clone is independent of the working copy as well
+        snapshot.navigate(target).getModel().get("attr").set(-2);
+        assertEquals(-1, subsystem.getModel().get("attr").asInt());
+
+        // subtrees nobody navigated to are still shared
+        assertSame(((AbstractModelResource) root).readChild("profile", "p8"), ((AbstractModelResource) snapshot).readChild("profile", "p8"));
+    }
+
+    @Test
+    public void testReadingFrozenTreeDoesNotCopy() {
+        final PathElement profile = PathElement.pathElement("profile", "p6");
+        Resource.Tools.freeze(root);
+        final Resource shared = ((AbstractModelResource) root).readChild("profile", "p6");
+
+        Resource clone = root.clone();
+        assertSame(shared, root.getChild(profile));
+        for (Resource.ResourceEntry entry : root.getChildren("profile")) {
+            assertSame(((AbstractModelResource) root).readChild("profile", entry.getName()), ((AbstractModelResource.DelegateResource) entry).delegate);
+        }
+
+        // the clone is not frozen, so it takes its own copy before handing the child out
+        clone.requireChild(profile).getModel().get("attr").set(true);
+        assertNotSame(shared, ((AbstractModelResource) clone).readChild("profile", "p6"));
+        assertSame(shared, root.getChild(profile));
+        assertFalse(root.getChild(profile).getModel().hasDefined("attr"));
+    }
+}
@@ -23,6 +23,7 @@
 package org.jboss.as.controller.registry;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -30,6 +31,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import org.jboss.as.controller.OperationContext;
@@ -39,13 +41,16 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -367,6 +372,35 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         assertTrue(acds.contains(ApplicationTypeAccessConstraintDefinition.DEPLOYMENT));
     }
 
+    @Test
+    public void testDescriptionsFollowModifications() throws Exception {
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        child.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+
+        ModelNode description = rootRegistration.getModelDescription(childAddress).getModelDescription(Locale.ENGLISH);
+        assertFalse(description.get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+        // callers get their own copy
+        description.get(ModelDescriptionConstants.ATTRIBUTES, "attr").set("changed");
+        assertFalse(child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(Locale.ENGLISH).get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+
+        child.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr", ModelType.STRING).build(), null);
+        description = rootRegistration.getModelDescription(childAddress).getModelDescription(Locale.ENGLISH);
+        assertTrue(description.get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+        assertFalse(description.get(ModelDescriptionConstants.CHILDREN).has(grandchildElement.getKey()));
+
+        // modifying a descendant is also seen
+        child.registerSubModel(new SimpleResourceDefinition(grandchildElement, new NonResolvingResourceDescriptionResolver()));
+        description = rootRegistration.getModelDescription(childAddress).getModelDescription(Locale.ENGLISH);
+        assertTrue(description.get(ModelDescriptionConstants.CHILDREN).has(grandchildElement.getKey()));
+
+        child.unregisterAttribute("attr");
+        description = rootRegistration.getModelDescription(childAddress).getModelDescription(Locale.ENGLISH);
+        assertFalse(description.get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+
+        ModelNode opDescription = child.getOperationEntry(PathAddress.EMPTY_ADDRESS, "one").getDescriptionProvider().getModelDescription(Locale.ENGLISH);
+        assertEquals("one", opDescription.get(ModelDescriptionConstants.OPERATION_NAME).asString());
+    }
+
     private static class TestHandler implements OperationStepHandler {
 
         private static TestHandler INSTANCE = new TestHandler();
@@ -0,0 +1,325 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Stores content as a list of content defined chunks, where each distinct chunk is only stored once.
+ * <p/>
+ * The chunk boundaries are found with a rolling gear hash over the last 64 bytes, so they only depend on the
+ * local content. Inserting or changing a few bytes, e.g. one class in an archive, only changes the chunks around
+ * the change, and all the other chunks are shared with the earlier versions of the content. Each chunk is stored in
+ * a file named after its SHA-1, and each piece of content has a manifest listing its chunks in order.
+ * <p/>
+ * The chunking is deterministic, so the same content is always split the same way on every host.
+ */
+final class ChunkStore {
+
+    static final String CHUNKS = "chunks";
+    static final String CONTENT = "content";
+    static final String MANIFEST = "manifest";
+
+    /** Chunks are never smaller than this, except for the last one */
+    private static final int MIN_CHUNK = 16 * 1024;
+    /** Chunks are never larger than this */
+    private static final int MAX_CHUNK = 256 * 1024;
+    /** A boundary is found with probability 2^-16 per byte, so on average chunks are 64k plus the minimum size */
+    private static final long BOUNDARY_MASK = 0xFFFF000000000000L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // a fixed seed, the boundaries must be the same on every host and in every version
+        Random random = new Random(0x5EEDC0DEL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path chunksDir;
+
+    ChunkStore(Path chunksDir) {
+        this.chunksDir = chunksDir;
+    }
+
+    /**
+     * A chunk of some content
+     */
+    static final class Chunk {
+        private final String hash;
+        private final int length;
+
+        Chunk(String hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        int getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * Splits a file into chunks, stores any chunks that are not already stored, and writes the manifest.
+     *
+     * @param file the content
+     * @param manifest the path of the manifest to write
+     * @return the number of bytes of new chunks that had to be stored
+     */
+    long store(Path file, Path manifest) throws IOException {
+        return split(file, manifest, true);
+    }
+
+    /**
+     * Writes the manifest of a file, without storing its chunks. The manifest can then be used to find chunks
+     * in the file.
+     *
+     * @param file the content
+     * @param manifest the path of the manifest to write
+     */
+    static void index(Path file, Path manifest) throws IOException {
+        new ChunkStore(null).split(file, manifest, false);
+    }
+
+    /**
+     * Makes sure the content file in a content directory exists, rebuilding it from its chunks if the content
+     * was stored as chunks.
+     *
+     * @param contentDir the directory of the content, under the repository root
+     * @return the content file
+     */
+    static Path ensureContent(Path contentDir) throws IOException {
+        final Path file = contentDir.resolve(CONTENT);
+        final Path manifest = contentDir.resolve(MANIFEST);
+        if (!Files.exists(file) && Files.exists(manifest)) {
+            final ChunkStore chunkStore = new ChunkStore(contentDir.getParent().getParent().resolve(CHUNKS));
+            final Path tmp = Files.createTempFile(contentDir, CONTENT, ".tmp");
+            try {
+                Files.delete(tmp);
+                chunkStore.assemble(manifest, tmp);
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ignore) {
+                // rebuilt concurrently
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Deletes the content file that {@link #ensureContent(Path)} rebuilt from the chunks, so content stored as chunks
+     * is only stored twice while it is used. The file is only deleted if all the chunks of the content are stored,
+     * so it can be rebuilt again.
+     *
+     * @param contentDir the directory of the content, under the repository root
+     * @param olderThan the file is only deleted if it was rebuilt before this time
+     * @return {@code true} if the file was deleted
+     */
+    static boolean evictContent(Path contentDir, long olderThan) throws IOException {
+        final Path file = contentDir.resolve(CONTENT);
+        final Path manifest = contentDir.resolve(MANIFEST);
+        if (!Files.exists(file) || !Files.exists(manifest) || Files.getLastModifiedTime(file).toMillis() >= olderThan) {
+            return false;
+        }
+        final ChunkStore chunkStore = new ChunkStore(contentDir.getParent().getParent().resolve(CHUNKS));
+        for (Chunk chunk : readManifest(manifest)) {
+            if (!chunkStore.hasChunk(chunk.getHash())) {
+                // the content was not stored as chunks, e.g. it was transferred from the master
+                return false;
+            }
+        }
+        return Files.deleteIfExists(file);
+    }
+
+    private long split(Path file, Path manifest, boolean storeChunks) throws IOException {
+        final MessageDigest digest = createMessageDigest();
+        final List<Chunk> chunks = new ArrayList<>();
+        long stored = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final byte[] chunk = new byte[MAX_CHUNK];
+            int length = 0;
+            long hash = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    final byte b = buffer[i];
+                    chunk[length++] = b;
+                    hash = (hash << 1) + GEAR[b & 0xFF];
+                    if ((length >= MIN_CHUNK && (hash & BOUNDARY_MASK) == 0) || length == MAX_CHUNK) {
+                        stored += storeChunk(digest, chunk, length, chunks, storeChunks);
+                        length = 0;
+                        hash = 0;
+                    }
+                }
+            }
+            if (length > 0) {
+                stored += storeChunk(digest, chunk, length, chunks, storeChunks);
+            }
+        }
+        writeManifest(chunks, manifest);
+        return stored;
+    }
+
+    /**
+     * Rebuilds content from its manifest.
+     *
+     * @param manifest the manifest
+     * @param target the file to write, which must not exist
+     */
+    void assemble(Path manifest, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            for (Chunk chunk : readManifest(manifest)) {
+                Files.copy(getChunkFile(chunk.getHash()), out);
+            }
+        }
+    }
+
+    static List<Chunk> readManifest(Path manifest) throws IOException {
+        final List<Chunk> chunks = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space > 0) {
+                    chunks.add(new Chunk(line.substring(0, space), Integer.parseInt(line.substring(space + 1))));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    boolean hasChunk(String hash) {
+        return Files.exists(getChunkFile(hash));
+    }
+
+    Path getChunkFile(String hash) {
+        return chunksDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2));
+    }
+
+    /**
+     * Deletes the chunks that are not used by any manifest. Chunks that were modified recently are kept, as they may
+     * belong to content that is being added, whose manifest has not been written yet.
+     *
+     * @param usedChunks the hashes of the chunks used by all manifests
+     * @param olderThan only chunks last modified before this time are deleted
+     */
+    void removeUnusedChunks(Set<String> usedChunks, long olderThan) {
+        if (!Files.isDirectory(chunksDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(chunksDir)) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(prefix)) {
+                    for (Path file : files) {
+                        String hash = prefix.getFileName().toString() + file.getFileName().toString();
+                        if (!usedChunks.contains(hash) && Files.getLastModifiedTime(file).toMillis() < olderThan) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, chunksDir.toString());
+        }
+    }
+
+    private long storeChunk(MessageDigest digest, byte[] data, int length, List<Chunk> chunks, boolean store) throws IOException {
+        digest.reset();
+        digest.update(data, 0, length);
+        final String hash = HashUtil.bytesToHexString(digest.digest());
+        chunks.add(new Chunk(hash, length));
+        if (!store) {
+            return 0;
+        }
+        final Path chunkFile = getChunkFile(hash);
+        if (Files.exists(chunkFile)) {
+            // refresh the modification time, so the chunk is not removed before the manifest using it is written
+            Files.setLastModifiedTime(chunkFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return 0;
+        }
+        Files.createDirectories(chunkFile.getParent());
+        final Path tmp = Files.createTempFile(chunkFile.getParent(), CHUNKS, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(data, 0, length);
+            }
+            Files.move(tmp, chunkFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ignore) {
+            // stored concurrently
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return length;
+    }
+
+    static void writeManifest(List<Chunk> chunks, Path manifest) throws IOException {
+        final Path tmp = Files.createTempFile(manifest.getParent(), manifest.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Chunk chunk : chunks) {
+                    writer.write(chunk.getHash());
+                    writer.write(' ');
+                    writer.write(Integer.toString(chunk.getLength()));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+}
@@ -21,17 +21,22 @@
  */
 package org.jboss.as.repository;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.DigestOutputStream;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -69,6 +74,13 @@ public interface ContentRepository {
     String DELETED_CONTENT = "deleted-contents";
     String MARKED_CONTENT = "marked-contents";
 
+    /**
+     * System property that, if {@code true}, makes the repository store new content as deduplicated chunks instead
+     * of whole files. Content stored as chunks is rebuilt when it is read, and the rebuilt file is deleted again by
+     * {@link #cleanObsoleteContent()} once nothing references the content.
+     */
+    String CHUNKED_CONTENT = "org.jboss.as.repository.chunked-content";
+
     /**
      * Add the given content to the repository along with a reference tracked by {@code name}.
      *
@@ -139,16 +151,32 @@ public interface ContentRepository {
     static class Factory {
 
         public static void addService(final ServiceTarget serviceTarget, final File repoRoot) {
-            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT);
+            ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot, OBSOLETE_CONTENT_TIMEOUT, isChunkedContent());
             serviceTarget.addService(SERVICE_NAME, contentRepository).install();
         }
 
         public static ContentRepository create(final File repoRoot) {
-            return create(repoRoot, OBSOLETE_CONTENT_TIMEOUT);
+            return create(repoRoot, OBSOLETE_CONTENT_TIMEOUT, isChunkedContent());
         }
 
         static ContentRepository create(final File repoRoot, long timeout) {
-            return new ContentRepositoryImpl(repoRoot, timeout);
+            return create(repoRoot, timeout, false);
+        }
+
+        static ContentRepository create(final File repoRoot, long timeout, boolean chunked) {
+            return new ContentRepositoryImpl(repoRoot, timeout, chunked);
+        }
+
+        private static boolean isChunkedContent() {
+            if (System.getSecurityManager() == null) {
+                return Boolean.getBoolean(CHUNKED_CONTENT);
+            }
+            return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+                @Override
+                public Boolean run() {
+                    return Boolean.getBoolean(CHUNKED_CONTENT);
+                }
+            });
         }
 
         /**
@@ -159,13 +187,16 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            private static final String MANIFEST = ChunkStore.MANIFEST;
+            private static final int BUFFER_SIZE = 64 * 1024;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
+            private final ChunkStore chunkStore;
+            private final boolean chunked;
             private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<String, Set<ContentReference>>();
             private final Map<String, Long> obsoleteContents = new HashMap<String, Long>();
             private final long obsolescenceTimeout;
 
-            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout) {
+            protected ContentRepositoryImpl(final File repoRoot, long obsolescenceTimeout, boolean chunked) {
                 if (repoRoot == null) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.nullVar("repoRoot");
                 }
@@ -180,8 +211,16 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
                 this.obsolescenceTimeout = obsolescenceTimeout;
+                // content stored as chunks stays readable if chunking is turned off again
+                this.chunkStore = new ChunkStore(repoRoot.toPath().resolve(ChunkStore.CHUNKS));
+                this.chunked = chunked;
+                // fail fast if SHA-1 is not available
+                createMessageDigest();
+            }
+
+            private static MessageDigest createMessageDigest() {
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
@@ -189,27 +228,27 @@ public interface ContentRepository {
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
-                Path tmp = Files.createTempFile(repoRoot.toPath(), CONTENT, ".tmp");
-                OutputStream fos = Files.newOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
+                // each call has its own digest, so concurrent uploads are copied and hashed in parallel
+                final MessageDigest messageDigest = createMessageDigest();
+                final Path tmp = Files.createTempFile(repoRoot.toPath(), CONTENT, ".tmp");
+                try (ReadableByteChannel in = Channels.newChannel(stream);
+                     FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    while (in.read(buffer) > -1) {
+                        buffer.flip();
+                        buffer.mark();
+                        messageDigest.update(buffer);
+                        buffer.reset();
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
                         }
-                        fos.flush();
-                        fos.close();
-                        fos = null;
-                    } finally {
-                        safeClose(fos);
+                        buffer.clear();
                     }
-                    sha1Bytes = messageDigest.digest();
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(tmp);
+                    throw e;
                 }
+                final byte[] sha1Bytes = messageDigest.digest();
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -220,6 +259,15 @@ public interface ContentRepository {
                         tmp.toFile().deleteOnExit();
                     }
                     DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.toAbsolutePath().toString());
+                } else if (chunked) {
+                    final Path manifest = realFile.resolveSibling(MANIFEST);
+                    try {
+                        long stored = chunkStore.store(tmp, manifest);
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Stored %d bytes of new chunks for content %s", stored, manifest.getParent().toString());
+                    } finally {
+                        Files.deleteIfExists(tmp);
+                    }
+                    DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(manifest.toAbsolutePath().toString());
                 } else {
                     moveTempToPermanent(tmp, realFile);
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.toAbsolutePath().toString());
@@ -245,7 +293,15 @@ public interface ContentRepository {
                 if (hash == null) {
                     throw DeploymentRepositoryLogger.ROOT_LOGGER.nullVar("hash");
                 }
-                return VFS.getChild(getDeploymentContentFile(hash, true).toUri());
+                final Path file = getDeploymentContentFile(hash, true);
+                try {
+                    // content that was stored as chunks is rebuilt when it is used, and deleted again by
+                    // cleanObsoleteContent once nothing references it
+                    ChunkStore.ensureContent(file.getParent());
+                } catch (IOException ioex) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotRebuildContent(ioex, file.toAbsolutePath().toString());
+                }
+                return VFS.getChild(file.toUri());
             }
 
             @Override
@@ -256,7 +312,7 @@ public interface ContentRepository {
             @Override
             public boolean hasContent(byte[] hash) {
                 Path content = getDeploymentContentFile(hash);
-                return Files.exists(getDeploymentContentFile(hash));
+                return Files.exists(content) || Files.exists(content.resolveSibling(MANIFEST));
             }
 
             protected Path getRepoRoot() {
@@ -309,6 +365,8 @@ public interface ContentRepository {
                 Path localTmp = permanentFile.resolveSibling("tmp");
                 try {
                     Files.move(tmpFile, permanentFile);
+                } catch (FileAlreadyExistsException ignore) {
+                    // the same content was added concurrently
                 } catch (IOException ioex) {
                     // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
                     // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
@@ -359,6 +417,12 @@ public interface ContentRepository {
                 } catch (IOException ex) {
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, file.toString());
                 }
+                Path manifest = file.resolveSibling(MANIFEST);
+                try {
+                    Files.deleteIfExists(manifest);
+                } catch (IOException ex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, manifest.toString());
+                }
                 Path parent = file.getParent();
                 try {
                     Files.deleteIfExists(parent);
@@ -393,15 +457,60 @@ public interface ContentRepository {
                                 cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
                             } else {
                                 cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
+                                evictRebuiltContent(fsContent);
                             }
                         } else {
                             obsoleteContents.remove(fsContent.getHexHash()); //Remove existing references from obsoleteContents
                         }
                     }
                 }
+                removeUnusedChunks();
                 return cleanedContents;
             }
 
+            /**
+             * Deletes the file rebuilt from the chunks of content that is no longer used, as it can be rebuilt
+             * again if the content is used later.
+             *
+             * @param ref the content reference
+             */
+            private void evictRebuiltContent(ContentReference ref) {
+                final Path contentDir = getDeploymentHashDir(ref.getHash(), false);
+                try {
+                    if (ChunkStore.evictContent(contentDir, System.currentTimeMillis() - obsolescenceTimeout)) {
+                        DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Deleted the rebuilt content %s, it is still stored as chunks", contentDir.toString());
+                    }
+                } catch (IOException ex) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, contentDir.resolve(CONTENT).toString());
+                }
+            }
+
+            /**
+             * Removes the chunks that are no longer used by any content stored as chunks.
+             */
+            private void removeUnusedChunks() {
+                if (!Files.isDirectory(repoRoot.toPath().resolve(ChunkStore.CHUNKS))) {
+                    return;
+                }
+                final long olderThan = System.currentTimeMillis() - obsolescenceTimeout;
+                final Set<String> usedChunks = new HashSet<>();
+                for (ContentReference fsContent : listLocalContents()) {
+                    Path manifest = getDeploymentContentFile(fsContent.getHash()).resolveSibling(MANIFEST);
+                    if (Files.exists(manifest)) {
+                        try {
+                            for (ChunkStore.Chunk chunk : ChunkStore.readManifest(manifest)) {
+                                usedChunks.add(chunk.getHash());
+                            }
+                        } catch (IOException ex) {
+                            // without the full set of used chunks nothing can safely be removed
+                            DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, manifest.toString());
+                            return;
+                        }
+                    }
+                }
+                chunkStore.removeUnusedChunks(usedChunks, olderThan);
+            }
+
             /**
              * Mark content as obsolete. If content was already marked for obsolescenceTimeout ms then it is removed.
              *
@@ -426,7 +535,7 @@ public interface ContentRepository {
                 Set<ContentReference> localReferences = new HashSet<>();
                 File[] rootHashes = repoRoot.listFiles();
                 for (File rootHash : rootHashes) {
-                    if (rootHash.isDirectory()) {
+                    if (rootHash.isDirectory() && !ChunkStore.CHUNKS.equals(rootHash.getName())) {
                         File[] complementaryHashes = rootHash.listFiles();
                         if (complementaryHashes == null || complementaryHashes.length == 0) {
                             ContentReference reference = new ContentReference(rootHash.getAbsolutePath(), rootHash.getName());
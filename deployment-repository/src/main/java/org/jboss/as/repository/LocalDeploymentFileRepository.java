@@ -22,6 +22,9 @@
 package org.jboss.as.repository;
 
 import java.io.File;
+import java.io.IOException;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 
 /**
  *
@@ -51,6 +54,24 @@ public class LocalDeploymentFileRepository implements DeploymentFileRepository {
         return new File(first, hex.substring(2));
     }
 
+    /**
+     * Makes sure the content file of a deployment exists. Content stored as chunks is only rebuilt when it is used, so
+     * code that reads the files of a deployment root directly, e.g. to send them, must call this first.
+     *
+     * @param deploymentDir the directory of the deployment content
+     * @return the directory
+     */
+    public static File ensureContent(File deploymentDir) {
+        if (deploymentDir.isDirectory()) {
+            try {
+                ChunkStore.ensureContent(deploymentDir.toPath());
+            } catch (IOException ioex) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotRebuildContent(ioex, deploymentDir.getAbsolutePath());
+            }
+        }
+        return deploymentDir;
+    }
+
     @Override
     public void deleteDeployment(ContentReference reference) {
         File deployment = getDeploymentRoot(reference);
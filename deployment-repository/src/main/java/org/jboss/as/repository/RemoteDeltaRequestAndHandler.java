@@ -0,0 +1,471 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.repository;
+
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Common protocol code for transferring only the changed parts of deployment content from the master to a slave HC.
+ * <p/>
+ * The content is split into the same content defined chunks that the {@link ContentRepository} uses to store content
+ * as chunks. A slave first gets the list of chunks of the content it needs (its manifest), then works out which of
+ * these chunks it already has in other content it stores, and only asks for the rest. The content is then rebuilt
+ * from the local and the received chunks, and checked against its hash.
+ */
+public abstract class RemoteDeltaRequestAndHandler {
+
+    private static final int HASH_LENGTH = 20;
+
+    private final RemoteDeltaProtocolIdMapper protocol;
+    private final Executor asyncExecutor;
+    private final Semaphore transferPermits;
+
+    /**
+     * @param protocol the protocol ids
+     * @param asyncExecutor the executor to send responses with, or {@code null} to use the default one
+     * @param transferPermits limits the number of responses sent at once, may be {@code null}
+     */
+    protected RemoteDeltaRequestAndHandler(RemoteDeltaProtocolIdMapper protocol, Executor asyncExecutor, Semaphore transferPermits) {
+        this.protocol = protocol;
+        this.asyncExecutor = asyncExecutor;
+        this.transferPermits = transferPermits;
+    }
+
+    public void sendManifestRequest(FlushableDataOutput output, String hash) throws IOException {
+        output.writeByte(protocol.paramFilePath());
+        output.writeUTF(hash);
+    }
+
+    /**
+     * Reads the manifest of some content
+     *
+     * @return the manifest, or {@code null} if the content was not found
+     */
+    public Manifest handleManifestResponse(DataInput input) throws IOException {
+        expectHeader(input, protocol.paramNumChunks());
+        final int numChunks = input.readInt();
+        if (numChunks < 0) {
+            return null;
+        }
+        final List<ChunkStore.Chunk> chunks = new ArrayList<>(numChunks);
+        final byte[] hash = new byte[HASH_LENGTH];
+        for (int i = 0; i < numChunks; i++) {
+            expectHeader(input, protocol.paramChunk());
+            input.readFully(hash);
+            chunks.add(new ChunkStore.Chunk(HashUtil.bytesToHexString(hash), input.readInt()));
+        }
+        return new Manifest(chunks);
+    }
+
+    /**
+     * Works out which chunks of some content can be found in the content stored locally.
+     *
+     * @param deploymentRoot the root of the local content
+     * @param manifest the manifest of the content to get
+     * @return the plan
+     */
+    public Plan plan(final File deploymentRoot, final Manifest manifest) throws IOException {
+        final Map<String, ChunkSource> available = findLocalChunks(deploymentRoot.toPath());
+        final ChunkSource[] sources = new ChunkSource[manifest.chunks.size()];
+        final List<Integer> missing = new ArrayList<>();
+        long localBytes = 0;
+        for (int i = 0; i < sources.length; i++) {
+            final ChunkStore.Chunk chunk = manifest.chunks.get(i);
+            final ChunkSource source = available.get(chunk.getHash());
+            if (source != null && source.length == chunk.getLength()) {
+                sources[i] = source;
+                localBytes += chunk.getLength();
+            } else {
+                missing.add(i);
+            }
+        }
+        return new Plan(manifest, sources, missing, localBytes);
+    }
+
+    public void sendChunksRequest(FlushableDataOutput output, String hash, Plan plan) throws IOException {
+        output.writeByte(protocol.paramFilePath());
+        output.writeUTF(hash);
+        output.writeByte(protocol.paramNumChunks());
+        output.writeInt(plan.missing.size());
+        for (Integer index : plan.missing) {
+            output.writeInt(index);
+        }
+    }
+
+    /**
+     * Rebuilds content from the chunks available locally and the missing chunks received from the master.
+     *
+     * @param input the response
+     * @param plan the plan the chunks were requested with
+     * @param hash the hash of the content
+     * @param contentDir the directory to store the content in
+     */
+    public void handleChunksResponse(DataInput input, Plan plan, byte[] hash, File contentDir) throws IOException {
+        expectHeader(input, protocol.paramNumChunks());
+        final int numChunks = input.readInt();
+        if (numChunks != plan.missing.size()) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.unexpectedChunkCount(plan.missing.size(), numChunks);
+        }
+        Files.createDirectories(contentDir.toPath());
+        final MessageDigest digest = createMessageDigest();
+        final Path tmp = Files.createTempFile(contentDir.toPath(), ChunkStore.CONTENT, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[0];
+                for (int i = 0; i < plan.sources.length; i++) {
+                    final int length = plan.manifest.chunks.get(i).getLength();
+                    if (buffer.length < length) {
+                        buffer = new byte[length];
+                    }
+                    final ChunkSource source = plan.sources[i];
+                    if (source == null) {
+                        expectHeader(input, protocol.paramChunk());
+                        input.readFully(buffer, 0, length);
+                    } else {
+                        source.read(buffer);
+                    }
+                    digest.update(buffer, 0, length);
+                    out.write(buffer, 0, length);
+                }
+            }
+            if (!Arrays.equals(hash, digest.digest())) {
+                throw DeploymentRepositoryLogger.ROOT_LOGGER.rebuiltContentHashMismatch(HashUtil.bytesToHexString(hash));
+            }
+            Files.move(tmp, contentDir.toPath().resolve(ChunkStore.CONTENT), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        // keep the manifest, so the chunks of this content can be used for later transfers
+        ChunkStore.writeManifest(plan.manifest.chunks, contentDir.toPath().resolve(ChunkStore.MANIFEST));
+    }
+
+    /**
+     * Writes the manifest of content that was transferred as a whole, so its chunks can be used for later transfers.
+     *
+     * @param contentDir the directory of the content
+     */
+    public static void indexContent(File contentDir) throws IOException {
+        final Path file = contentDir.toPath().resolve(ChunkStore.CONTENT);
+        final Path manifest = contentDir.toPath().resolve(ChunkStore.MANIFEST);
+        if (Files.exists(file) && !Files.exists(manifest)) {
+            ChunkStore.index(file, manifest);
+        }
+    }
+
+    public void handleManifestRequest(final DataInput input, final DeploymentFileRepository repository, final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, protocol.paramFilePath());
+        final String hash = checkHash(input.readUTF());
+        executeAsync(context, hash, new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws Exception {
+                final List<ChunkStore.Chunk> chunks = readOrCreateManifest(repository, hash);
+                final FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(protocol.paramNumChunks());
+                    if (chunks == null) {
+                        output.writeInt(-1);
+                    } else {
+                        output.writeInt(chunks.size());
+                        for (ChunkStore.Chunk chunk : chunks) {
+                            output.writeByte(protocol.paramChunk());
+                            output.write(HashUtil.hexStringToByteArray(chunk.getHash()));
+                            output.writeInt(chunk.getLength());
+                        }
+                    }
+                    output.close();
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        });
+    }
+
+    public void handleChunksRequest(final DataInput input, final DeploymentFileRepository repository, final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, protocol.paramFilePath());
+        final String hash = checkHash(input.readUTF());
+        expectHeader(input, protocol.paramNumChunks());
+        final int numChunks = input.readInt();
+        // the count is not trusted, so the list grows with the indexes actually sent
+        final List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < numChunks; i++) {
+            indexes.add(input.readInt());
+        }
+        executeAsync(context, hash, new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws Exception {
+                final List<ChunkStore.Chunk> chunks = readOrCreateManifest(repository, hash);
+                if (chunks == null) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.contentNotFound(hash);
+                }
+                for (int index : indexes) {
+                    if (index < 0 || index >= chunks.size()) {
+                        throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidChunkIndex(index, hash, chunks.size());
+                    }
+                }
+                final ChunkSource[] sources = findChunks(getContentDir(repository, hash), chunks);
+                final FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(protocol.paramNumChunks());
+                    output.writeInt(indexes.size());
+                    byte[] buffer = new byte[0];
+                    for (int index : indexes) {
+                        final ChunkSource source = sources[index];
+                        if (buffer.length < source.length) {
+                            buffer = new byte[source.length];
+                        }
+                        source.read(buffer);
+                        output.writeByte(protocol.paramChunk());
+                        output.write(buffer, 0, source.length);
+                    }
+                    output.close();
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        });
+    }
+
+    /**
+     * Finds where the chunks of some content are stored. Content that is only stored as chunks is read from the chunk
+     * store, rather than rebuilding its content file.
+     *
+     * @param contentDir the directory of the content
+     * @param chunks the chunks of the content
+     * @return the source of each chunk
+     */
+    private static ChunkSource[] findChunks(final File contentDir, final List<ChunkStore.Chunk> chunks) throws IOException {
+        final ChunkSource[] sources = new ChunkSource[chunks.size()];
+        final File content = new File(contentDir, ChunkStore.CONTENT);
+        if (content.exists()) {
+            long offset = 0;
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = new ChunkSource(content, offset, chunks.get(i).getLength());
+                offset += chunks.get(i).getLength();
+            }
+        } else {
+            final ChunkStore chunkStore = new ChunkStore(contentDir.getParentFile().getParentFile().toPath().resolve(ChunkStore.CHUNKS));
+            for (int i = 0; i < sources.length; i++) {
+                final ChunkStore.Chunk chunk = chunks.get(i);
+                sources[i] = new ChunkSource(chunkStore.getChunkFile(chunk.getHash()).toFile(), 0, chunk.getLength());
+            }
+        }
+        return sources;
+    }
+
+    private void executeAsync(final ManagementRequestContext<Void> context, final String hash, final ManagementRequestContext.AsyncTask<Void> task) {
+        final ManagementRequestContext.AsyncTask<Void> limited = transferPermits == null ? task : new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws Exception {
+                RemoteFileRequestAndHandler.acquireTransferPermit(transferPermits, hash);
+                try {
+                    task.execute(context);
+                } finally {
+                    transferPermits.release();
+                }
+            }
+        };
+        if (asyncExecutor == null) {
+            context.executeAsync(limited);
+        } else {
+            context.executeAsync(limited, asyncExecutor);
+        }
+    }
+
+    /**
+     * Checks that a hash sent by a slave is a SHA-1 hash, as it is used to build the path of the content.
+     *
+     * @return the hash
+     * @throws IOException if it is not a hash
+     */
+    static String checkHash(final String hash) throws IOException {
+        if (hash.length() != 40 || !HashUtil.bytesToHexString(HashUtil.hexStringToByteArray(hash)).equals(hash)) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentHash(hash);
+        }
+        return hash;
+    }
+
+    private static File getContentDir(final DeploymentFileRepository repository, final String hash) {
+        return repository.getDeploymentRoot(new ContentReference(hash, hash));
+    }
+
+    /**
+     * Reads the manifest of some content, splitting the content into chunks first if this has not been done yet.
+     *
+     * @return the chunks, or {@code null} if there is no such content
+     */
+    private static List<ChunkStore.Chunk> readOrCreateManifest(final DeploymentFileRepository repository, final String hash) throws IOException {
+        final File contentDir = getContentDir(repository, hash);
+        final Path manifest = contentDir.toPath().resolve(ChunkStore.MANIFEST);
+        if (!Files.exists(manifest)) {
+            final Path content = contentDir.toPath().resolve(ChunkStore.CONTENT);
+            if (!Files.exists(content)) {
+                return null;
+            }
+            ChunkStore.index(content, manifest);
+        }
+        return ChunkStore.readManifest(manifest);
+    }
+
+    /**
+     * Finds the chunks of all the content stored locally that has a manifest.
+     */
+    private static Map<String, ChunkSource> findLocalChunks(final Path deploymentRoot) throws IOException {
+        final Map<String, ChunkSource> available = new HashMap<>();
+        final File[] prefixes = deploymentRoot.toFile().listFiles();
+        if (prefixes == null) {
+            return available;
+        }
+        final ChunkStore chunkStore = new ChunkStore(deploymentRoot.resolve(ChunkStore.CHUNKS));
+        for (File prefix : prefixes) {
+            final File[] contentDirs = prefix.isDirectory() ? prefix.listFiles() : null;
+            if (contentDirs == null || ChunkStore.CHUNKS.equals(prefix.getName())) {
+                continue;
+            }
+            for (File contentDir : contentDirs) {
+                final Path manifest = contentDir.toPath().resolve(ChunkStore.MANIFEST);
+                if (!Files.exists(manifest)) {
+                    continue;
+                }
+                final File content = new File(contentDir, ChunkStore.CONTENT);
+                final boolean hasContent = content.exists();
+                long offset = 0;
+                for (ChunkStore.Chunk chunk : ChunkStore.readManifest(manifest)) {
+                    if (!available.containsKey(chunk.getHash())) {
+                        if (hasContent) {
+                            available.put(chunk.getHash(), new ChunkSource(content, offset, chunk.getLength()));
+                        } else if (chunkStore.hasChunk(chunk.getHash())) {
+                            available.put(chunk.getHash(), new ChunkSource(chunkStore.getChunkFile(chunk.getHash()).toFile(), 0, chunk.getLength()));
+                        }
+                    }
+                    offset += chunk.getLength();
+                }
+            }
+        }
+        return available;
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+
+    /**
+     * The list of chunks of some content
+     */
+    public static final class Manifest {
+        private final List<ChunkStore.Chunk> chunks;
+
+        private Manifest(List<ChunkStore.Chunk> chunks) {
+            this.chunks = chunks;
+        }
+
+        public int getNumChunks() {
+            return chunks.size();
+        }
+    }
+
+    /**
+     * Where each chunk of some content comes from
+     */
+    public static final class Plan {
+        private final Manifest manifest;
+        private final ChunkSource[] sources;
+        private final List<Integer> missing;
+        private final long localBytes;
+
+        private Plan(Manifest manifest, ChunkSource[] sources, List<Integer> missing, long localBytes) {
+            this.manifest = manifest;
+            this.sources = sources;
+            this.missing = missing;
+            this.localBytes = localBytes;
+        }
+
+        /**
+         * @return the number of bytes of the content that are available locally
+         */
+        public long getLocalBytes() {
+            return localBytes;
+        }
+
+        /**
+         * @return the number of chunks that have to be transferred
+         */
+        public int getNumMissingChunks() {
+            return missing.size();
+        }
+    }
+
+    private static final class ChunkSource {
+        private final File file;
+        private final long offset;
+        private final int length;
+
+        private ChunkSource(File file, long offset, int length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private void read(byte[] buffer) throws IOException {
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                in.seek(offset);
+                in.readFully(buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Maps the expected protocol codes to the actual protocol
+     */
+    public interface RemoteDeltaProtocolIdMapper {
+        byte paramFilePath();
+        byte paramNumChunks();
+        byte paramChunk();
+    }
+}
@@ -34,6 +34,8 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -41,6 +43,7 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.logging.BasicLogger;
 
 
@@ -51,16 +54,30 @@ import org.jboss.logging.BasicLogger;
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    /** How long a transfer waits for one of the limited transfer permits before it fails */
+    static final long TRANSFER_PERMIT_TIMEOUT = 60;
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
+    private final Semaphore transferPermits;
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol) {
         this(protocol, null);
     }
 
     protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, Executor asyncExecutor) {
+        this(protocol, asyncExecutor, null);
+    }
+
+    /**
+     * @param protocol the protocol ids
+     * @param asyncExecutor the executor to send responses with, or {@code null} to use the default one
+     * @param transferPermits limits the number of files sent at once, may be {@code null}
+     */
+    protected RemoteFileRequestAndHandler(RemoteFileProtocolIdMapper protocol, Executor asyncExecutor, Semaphore transferPermits) {
         this.protocol = protocol;
         this.asyncExecutor = asyncExecutor;
+        this.transferPermits = transferPermits;
     }
 
     public void sendRequest(FlushableDataOutput output, byte rootId, String filePath) throws IOException{
@@ -135,13 +152,22 @@ public abstract class RemoteFileRequestAndHandler {
             @Override
             public void execute(ManagementRequestContext<Void> context) throws Exception {
                 final File localPath = reader.readRootFile(rootId, filePath);
-                //final FlushableDataOutput output = writeGenericResponseHeader(context);
-                FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                if (transferPermits != null) {
+                    acquireTransferPermit(transferPermits, filePath);
+                }
                 try {
-                    writeResponse(localPath, output);
-                    output.close();
+                    //final FlushableDataOutput output = writeGenericResponseHeader(context);
+                    FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                    try {
+                        writeResponse(localPath, output);
+                        output.close();
+                    } finally {
+                        StreamUtils.safeClose(output);
+                    }
                 } finally {
-                    StreamUtils.safeClose(output);
+                    if (transferPermits != null) {
+                        transferPermits.release();
+                    }
                 }
             }
         };
@@ -153,6 +179,20 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
+    /**
+     * Waits for a transfer permit, but not forever, so a slow transfer can not hold up the request threads of the
+     * other slaves indefinitely.
+     *
+     * @param transferPermits the permits
+     * @param path the content to be transferred
+     * @throws IOException if no permit became available in time
+     */
+    static void acquireTransferPermit(final Semaphore transferPermits, final String path) throws IOException, InterruptedException {
+        if (!transferPermits.tryAcquire(TRANSFER_PERMIT_TIMEOUT, TimeUnit.SECONDS)) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.transferPermitTimeout(path, TRANSFER_PERMIT_TIMEOUT);
+        }
+    }
+
     private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
         output.writeByte(protocol.paramNumFiles());
         if (localPath == null || !localPath.exists()) {
@@ -26,6 +26,8 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.IOException;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
@@ -121,4 +123,80 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 10, value = "Couldn't delete content %s")
     void contentDeletionError(@Cause Throwable cause, String name);
+
+    /**
+     * Creates an exception indicating the content could not be rebuilt from its chunks.
+     *
+     * @param cause the cause of the error.
+     * @param path  the path of the content.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 11, value = "Cannot rebuild content %s from its chunks")
+    IllegalStateException cannotRebuildContent(@Cause Throwable cause, String path);
+
+    /**
+     * Creates an exception indicating the content could not be found.
+     *
+     * @param hash the hash of the content.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 12, value = "Content %s not found")
+    IOException contentNotFound(String hash);
+
+    /**
+     * Creates an exception indicating a different number of chunks was received than was requested.
+     *
+     * @param expected the number of chunks requested.
+     * @param actual   the number of chunks received.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 13, value = "Expected %d chunks but received %d")
+    IOException unexpectedChunkCount(int expected, int actual);
+
+    /**
+     * Creates an exception indicating the content rebuilt from its chunks does not match its hash.
+     *
+     * @param hash the hash of the content.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14, value = "Content rebuilt from its chunks does not match the hash %s")
+    IOException rebuiltContentHashMismatch(String hash);
+
+    /**
+     * Creates an exception indicating the transfer of some content could not start in time, as too many other
+     * transfers are in progress.
+     *
+     * @param path    the content to transfer.
+     * @param seconds the time waited, in seconds.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 15, value = "Cannot send %s, other content transfers have been in progress for more than %d seconds")
+    IOException transferPermitTimeout(String path, long seconds);
+
+    /**
+     * Creates an exception indicating a chunk that some content does not have was requested.
+     *
+     * @param index     the index of the requested chunk.
+     * @param hash      the hash of the content.
+     * @param numChunks the number of chunks of the content.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 16, value = "Invalid chunk %d requested for content %s, which has %d chunks")
+    IOException invalidChunkIndex(int index, String hash, int numChunks);
+
+    /**
+     * Creates an exception indicating content was requested with something that is not a content hash.
+     *
+     * @param hash the requested hash.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 17, value = "Invalid content hash %s")
+    IOException invalidContentHash(String hash);
 }
@@ -23,15 +23,30 @@ package org.jboss.as.repository;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.jboss.vfs.VirtualFile;
 import org.junit.After;
 import org.junit.Before;
@@ -243,4 +258,195 @@ public class ContentRepositoryTest {
         }
 
     }
+
+    /**
+     * Test of addContent method, of class ContentRepository, with concurrent uploads.
+     */
+    @Test
+    public void testAddContentConcurrently() throws Exception {
+        final int count = 8;
+        final List<byte[]> contents = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            // the last two uploads have the same content
+            byte[] data = new byte[1024 * 1024 + i];
+            random.nextBytes(data);
+            contents.add(i == count - 1 ? contents.get(i - 1) : data);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (final byte[] data : contents) {
+                results.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws Exception {
+                        return repository.addContent(new ByteArrayInputStream(data));
+                    }
+                }));
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] expected = MessageDigest.getInstance("SHA-1").digest(contents.get(i));
+                byte[] result = results.get(i).get();
+                assertThat(HashUtil.bytesToHexString(result), is(HashUtil.bytesToHexString(expected)));
+                assertThat(repository.hasContent(result), is(true));
+                assertThat(Files.readAllBytes(repository.getContent(result).getPhysicalFile().toPath()), is(contents.get(i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of a repository that stores content as chunks.
+     */
+    @Test
+    public void testChunkedContent() throws Exception {
+        repository = ContentRepository.Factory.create(rootDir, 0L, true);
+        Random random = new Random(42);
+        byte[] original = new byte[4 * 1024 * 1024];
+        random.nextBytes(original);
+        // a new version with a few bytes changed in the middle
+        byte[] modified = original.clone();
+        for (int i = 0; i < 16; i++) {
+            modified[2 * 1024 * 1024 + i] = (byte) ~modified[2 * 1024 * 1024 + i];
+        }
+        byte[] originalHash = repository.addContent(new ByteArrayInputStream(original));
+        Path chunks = rootDir.toPath().resolve(ChunkStore.CHUNKS);
+        long originalSize = directorySize(chunks);
+        assertThat(originalSize, is((long) original.length));
+        byte[] modifiedHash = repository.addContent(new ByteArrayInputStream(modified));
+        // the hash is still the hash of the whole content
+        assertThat(HashUtil.bytesToHexString(modifiedHash), is(HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(modified))));
+        long addedSize = directorySize(chunks) - originalSize;
+        assertThat(addedSize > 0 && addedSize <= 2 * 256 * 1024, is(true));
+
+        assertThat(repository.hasContent(originalHash), is(true));
+        assertThat(Files.readAllBytes(repository.getContent(originalHash).getPhysicalFile().toPath()), is(original));
+        assertThat(Files.readAllBytes(repository.getContent(modifiedHash).getPhysicalFile().toPath()), is(modified));
+
+        // the rebuilt files are only kept while the content is referenced
+        Path originalFile = repository.getContent(originalHash).getPhysicalFile().toPath();
+        Path modifiedFile = repository.getContent(modifiedHash).getPhysicalFile().toPath();
+        repository.addContentReference(new ContentReference("original", originalHash));
+        Thread.sleep(10);
+        repository.cleanObsoleteContent();
+        assertThat(Files.exists(originalFile), is(true));
+        assertThat(Files.exists(modifiedFile), is(false));
+        assertThat(repository.hasContent(modifiedHash), is(true));
+        assertThat(Files.readAllBytes(repository.getContent(modifiedHash).getPhysicalFile().toPath()), is(modified));
+
+        // once nothing uses the content its chunks are removed too
+        repository.removeContent(new ContentReference("original", originalHash));
+        repository.removeContent(new ContentReference("modified", modifiedHash));
+        assertThat(repository.hasContent(originalHash), is(false));
+        repository.cleanObsoleteContent();
+        assertThat(directorySize(chunks), is(0L));
+    }
+
+    @Test
+    public void testCheckHash() throws Exception {
+        String hash = HashUtil.bytesToHexString(repository.addContent(new ByteArrayInputStream(new byte[]{1, 2, 3})));
+        assertThat(RemoteDeltaRequestAndHandler.checkHash(hash), is(hash));
+        for (String invalid : new String[]{"", "../../../../etc/passwd", "..", hash.substring(2), hash + "00",
+                "../" + hash.substring(3), hash.substring(0, 2) + "/../" + hash.substring(6), hash.toUpperCase(Locale.ENGLISH)}) {
+            try {
+                RemoteDeltaRequestAndHandler.checkHash(invalid);
+                fail(invalid);
+            } catch (IOException expected) {
+                // a slave cannot make the master use a path outside the repository
+            }
+        }
+    }
+
+    @Test
+    public void testDeltaTransfer() throws Exception {
+        Random random = new Random(7);
+        byte[] original = new byte[2 * 1024 * 1024];
+        random.nextBytes(original);
+        byte[] modified = original.clone();
+        for (int i = 0; i < 16; i++) {
+            modified[1024 * 1024 + i] = (byte) ~modified[1024 * 1024 + i];
+        }
+        byte[] originalHash = repository.addContent(new ByteArrayInputStream(original));
+        byte[] modifiedHash = repository.addContent(new ByteArrayInputStream(modified));
+
+        // the slave has the original content
+        File slaveRoot = new File(rootDir, "slave");
+        LocalDeploymentFileRepository slave = new LocalDeploymentFileRepository(slaveRoot);
+        File originalDir = slave.getDeploymentRoot(new ContentReference("original", originalHash));
+        originalDir.mkdirs();
+        Files.write(originalDir.toPath().resolve(ChunkStore.CONTENT), original);
+        RemoteDeltaRequestAndHandler.indexContent(originalDir);
+
+        RemoteDeltaRequestAndHandler.RemoteDeltaProtocolIdMapper mapper = new RemoteDeltaRequestAndHandler.RemoteDeltaProtocolIdMapper() {
+            public byte paramFilePath() {
+                return 1;
+            }
+
+            public byte paramNumChunks() {
+                return 2;
+            }
+
+            public byte paramChunk() {
+                return 3;
+            }
+        };
+        RemoteDeltaRequestAndHandler delta = new RemoteDeltaRequestAndHandler(mapper, null, null) {
+        };
+
+        // the manifest of the modified content, as sent by the master
+        String modifiedHex = HashUtil.bytesToHexString(modifiedHash);
+        Path masterContent = rootDir.toPath().resolve(modifiedHex.substring(0, 2)).resolve(modifiedHex.substring(2)).resolve(ChunkStore.CONTENT);
+        Path masterManifest = masterContent.resolveSibling(ChunkStore.MANIFEST);
+        ChunkStore.index(masterContent, masterManifest);
+        List<ChunkStore.Chunk> chunks = ChunkStore.readManifest(masterManifest);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(2);
+        out.writeInt(chunks.size());
+        for (ChunkStore.Chunk chunk : chunks) {
+            out.writeByte(3);
+            out.write(HashUtil.hexStringToByteArray(chunk.getHash()));
+            out.writeInt(chunk.getLength());
+        }
+        RemoteDeltaRequestAndHandler.Manifest manifest = delta.handleManifestResponse(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThat(manifest.getNumChunks(), is(chunks.size()));
+
+        RemoteDeltaRequestAndHandler.Plan plan = delta.plan(slaveRoot, manifest);
+        assertThat(plan.getNumMissingChunks() > 0 && plan.getNumMissingChunks() <= 2, is(true));
+        assertThat(plan.getLocalBytes() >= modified.length - 2 * 256 * 1024, is(true));
+
+        // the missing chunks, as sent by the master
+        Set<String> local = new HashSet<>();
+        for (ChunkStore.Chunk chunk : ChunkStore.readManifest(originalDir.toPath().resolve(ChunkStore.MANIFEST))) {
+            local.add(chunk.getHash());
+        }
+        bytes = new ByteArrayOutputStream();
+        out = new DataOutputStream(bytes);
+        out.writeByte(2);
+        out.writeInt(plan.getNumMissingChunks());
+        int offset = 0;
+        for (ChunkStore.Chunk chunk : chunks) {
+            if (!local.contains(chunk.getHash())) {
+                out.writeByte(3);
+                out.write(modified, offset, chunk.getLength());
+            }
+            offset += chunk.getLength();
+        }
+        File modifiedDir = slave.getDeploymentRoot(new ContentReference("modified", modifiedHash));
+        delta.handleChunksResponse(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), plan, modifiedHash, modifiedDir);
+        assertThat(Files.readAllBytes(modifiedDir.toPath().resolve(ChunkStore.CONTENT)), is(modified));
+        assertThat(Files.exists(modifiedDir.toPath().resolve(ChunkStore.MANIFEST)), is(true));
+    }
+
+    private long directorySize(Path dir) throws Exception {
+        long size = 0;
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.isDirectory() ? directorySize(file.toPath()) : file.length();
+            }
+        }
+        return size;
+    }
 }
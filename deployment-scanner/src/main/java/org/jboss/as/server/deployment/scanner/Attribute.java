@@ -42,6 +42,7 @@ enum Attribute {
     AUTO_DEPLOY_XML(CommonAttributes.AUTO_DEPLOY_XML),
     DEPLOYMENT_TIMEOUT(CommonAttributes.DEPLOYMENT_TIMEOUT),
     RUNTIME_FAILURE_CAUSES_ROLLBACK(CommonAttributes.RUNTIME_FAILURE_CAUSES_ROLLBACK),
+    WATCH_FOR_CHANGES(CommonAttributes.WATCH_FOR_CHANGES),
     ;
 
     private final String name;
@@ -59,6 +59,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private final String relativeTo;
     private final String path;
     private boolean rollbackOnRuntimeFailure;
+    private boolean watchForChanges;
 
     /**
      * The created scanner.
@@ -86,15 +87,16 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
      * @param rollbackOnRuntimeFailure rollback on runtime failures
+     * @param watchForChanges   whether to watch the directory for changes between scans
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @return the controller for the deployment scanner service
      */
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
                                                                   final int scanInterval, TimeUnit unit, final boolean autoDeployZip,
                                                                   final boolean autoDeployExploded, final boolean autoDeployXml, final boolean scanEnabled, final long deploymentTimeout, boolean rollbackOnRuntimeFailure,
-                                                                  final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService) {
+                                                                  final boolean watchForChanges, final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService) {
         final DeploymentScannerService service = new DeploymentScannerService(relativeTo, path, scanInterval, unit, autoDeployZip,
-                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, bootTimeService);
+                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, watchForChanges, bootTimeService);
         final ServiceName serviceName = getServiceName(name);
 
         return serviceTarget.addService(serviceName, service)
@@ -109,7 +111,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     private DeploymentScannerService(final String relativeTo, final String path, final int interval, final TimeUnit unit, final boolean autoDeployZipped,
                              final boolean autoDeployExploded, final boolean autoDeployXml, final boolean enabled, final long deploymentTimeout,
-                             final boolean rollbackOnRuntimeFailure, final FileSystemDeploymentService bootTimeService) {
+                             final boolean rollbackOnRuntimeFailure, final boolean watchForChanges, final FileSystemDeploymentService bootTimeService) {
         this.relativeTo = relativeTo;
         this.path = path;
         this.interval = interval;
@@ -119,6 +121,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.autoDeployXml = autoDeployXml;
         this.enabled = enabled;
         this.rollbackOnRuntimeFailure = rollbackOnRuntimeFailure;
+        this.watchForChanges = watchForChanges;
         this.deploymentTimeout = deploymentTimeout;
         this.scanner = bootTimeService;
     }
@@ -151,6 +154,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 final FileSystemDeploymentService scanner = new FileSystemDeploymentService(relativeTo, new File(pathName),
                         relativePath, factory, scheduledExecutorValue.getValue(), controlledProcessStateServiceValue.getValue());
 
+                scanner.setWatchForChanges(watchForChanges);
                 scanner.setScanInterval(unit.toMillis(interval));
                 scanner.setAutoDeployExplodedContent(autoDeployExploded);
                 scanner.setAutoDeployZippedContent(autoDeployZipped);
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.jboss.as.server.deployment.scanner.logging.DeploymentScannerLogger.ROOT_LOGGER;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Watches a directory tree for changes, using the file system's change notifications rather than listing the tree.
+ * <p/>
+ * Only the directories the scanner scans are watched. The content of exploded deployments is not, so a large exploded
+ * deployment does not use up the watches of the file system; changes in it are found by the periodic scans. Changes to
+ * the markers that only the scanner itself writes while it works are ignored, so a scan does not trigger another one.
+ */
+final class DirectoryWatcher implements Closeable {
+
+    private final Path root;
+    private final Runnable listener;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> keys = new HashMap<WatchKey, Path>();
+    private final Thread thread;
+
+    /**
+     * @param root the directory to watch
+     * @param listener called, on the watcher thread, after one or more changes
+     * @throws IOException if the directory cannot be watched
+     */
+    DirectoryWatcher(final Path root, final Runnable listener) throws IOException {
+        this.root = root;
+        this.listener = listener;
+        this.watchService = root.getFileSystem().newWatchService();
+        try {
+            registerAll(root);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "DeploymentScanner-watcher-" + root.getFileName());
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        for (;;) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            final Path dir = keys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW || dir == null) {
+                    changed = true;
+                    continue;
+                }
+                final Path child = dir.resolve((Path) event.context());
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(child) && isScannedDirectory(child)) {
+                    try {
+                        registerAll(child);
+                    } catch (IOException e) {
+                        // the periodic scan will still find anything in it
+                        ROOT_LOGGER.debugf(e, "Cannot watch directory %s", child);
+                    }
+                }
+                if (!isScannerMarker(child.getFileName().toString())) {
+                    changed = true;
+                }
+            }
+            if (!key.reset()) {
+                keys.remove(key);
+            }
+            if (changed) {
+                listener.run();
+            }
+        }
+    }
+
+    private void registerAll(final Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!isScannedDirectory(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                keys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Whether the scanner looks for deployments and markers in a directory, rather than treating it as the content
+     * of an exploded deployment, or of an archive unzipped in the deployment directory by mistake.
+     */
+    private boolean isScannedDirectory(final Path dir) {
+        if (dir.equals(root)) {
+            return true;
+        }
+        final String name = dir.getFileName().toString();
+        return !FileSystemDeploymentService.ARCHIVE_PATTERN.matcher(name).matches()
+                && !FileSystemDeploymentService.WEB_INF.equalsIgnoreCase(name)
+                && !FileSystemDeploymentService.META_INF.equalsIgnoreCase(name);
+    }
+
+    private static boolean isScannerMarker(final String fileName) {
+        return fileName.endsWith(FileSystemDeploymentService.DEPLOYING)
+                || fileName.endsWith(FileSystemDeploymentService.UNDEPLOYING)
+                || fileName.endsWith(FileSystemDeploymentService.PENDING);
+    }
+}
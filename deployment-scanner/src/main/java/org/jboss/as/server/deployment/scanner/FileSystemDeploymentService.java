@@ -113,6 +113,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Minimum period between full scans when the directory is watched for changes
+     */
+    static final long RECONCILE_INTERVAL = 60000;
+
+    /**
+     * Delay between a change being seen and the scan for it, so a burst of changes results in a single scan
+     */
+    static final long CHANGE_SCAN_DELAY = 100;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -120,6 +130,15 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
     private ScheduledFuture<?> rescanUndeployTask;
+    private ScheduledFuture<?> changeScanTask;
+    /** A change scan is scheduled but has not started yet */
+    private boolean changeScanQueued;
+    /** A change scan is running */
+    private boolean changeScanRunning;
+    /** A change was seen while a change scan was running, so another one is needed once it is done */
+    private boolean changeScanPending;
+    private DirectoryWatcher watcher;
+    private boolean watchForChanges;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -161,6 +180,34 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private final DeploymentScanRunnable scanRunnable = new DeploymentScanRunnable();
 
+    private final Runnable changeScanRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (FileSystemDeploymentService.this) {
+                changeScanQueued = false;
+                changeScanRunning = true;
+            }
+            try {
+                scanRunnable.run();
+            } finally {
+                synchronized (FileSystemDeploymentService.this) {
+                    changeScanRunning = false;
+                    if (changeScanPending) {
+                        changeScanPending = false;
+                        scheduleChangeScan();
+                    }
+                }
+            }
+        }
+    };
+
+    private final Runnable changeListener = new Runnable() {
+        @Override
+        public void run() {
+            scheduleChangeScan();
+        }
+    };
+
     FileSystemDeploymentService(final String relativeTo, final File deploymentDir, final File relativeToDir,
                                 final DeploymentOperations.Factory deploymentOperationsFactory,
                                 final ScheduledExecutorService scheduledExecutor,
@@ -270,6 +317,18 @@ class FileSystemDeploymentService implements DeploymentScanner {
         startScan();
     }
 
+    /**
+     * Sets whether file system events are used to detect changes between full scans. Only used if the scan interval
+     * is greater than 0.
+     */
+    synchronized void setWatchForChanges(boolean watchForChanges) {
+        if (watchForChanges != this.watchForChanges) {
+            cancelScan();
+            this.watchForChanges = watchForChanges;
+            startScan();
+        }
+    }
+
     @Override
     public void setDeploymentTimeout(long deploymentTimeout) {
         this.deploymentTimeout = deploymentTimeout;
@@ -1026,7 +1085,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private synchronized void startScan() {
         if (scanEnabled) {
-            if (scanInterval > 0) {
+            if (scanInterval > 0 && watchForChanges && startWatcher()) {
+                // the full scans are only a safety net for changes the watcher missed
+                final long reconcileInterval = Math.max(scanInterval, RECONCILE_INTERVAL);
+                scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, reconcileInterval, TimeUnit.MILLISECONDS);
+            } else if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
                 scanTask = scheduledExecutor.schedule(scanRunnable, scanInterval, TimeUnit.MILLISECONDS);
@@ -1034,6 +1097,42 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Invoke with the object monitor held
+     *
+     * @return {@code true} if the deployment directory is being watched
+     */
+    private boolean startWatcher() {
+        if (watcher != null) {
+            return true;
+        }
+        try {
+            final DirectoryWatcher watcher = new DirectoryWatcher(deploymentDir.toPath(), changeListener);
+            watcher.start();
+            this.watcher = watcher;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            ROOT_LOGGER.cannotWatchDirectory(e, deploymentDir.getAbsolutePath());
+            return false;
+        }
+    }
+
+    /**
+     * Schedules a scan for a change seen by the watcher. A change seen while a scan is running may not be picked up by
+     * that scan, so another scan is scheduled once it is done.
+     */
+    private synchronized void scheduleChangeScan() {
+        if (!scanEnabled || watcher == null || changeScanQueued) {
+            return;
+        }
+        if (changeScanRunning) {
+            changeScanPending = true;
+        } else {
+            changeScanTask = scheduledExecutor.schedule(changeScanRunnable, CHANGE_SCAN_DELAY, TimeUnit.MILLISECONDS);
+            changeScanQueued = true;
+        }
+    }
+
     /**
      * Invoke with the object monitor held
      */
@@ -1050,6 +1149,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
             scanTask.cancel(false);
             scanTask = null;
         }
+        if (changeScanTask != null) {
+            changeScanTask.cancel(false);
+            changeScanTask = null;
+        }
+        changeScanQueued = false;
+        changeScanPending = false;
+        if (watcher != null) {
+            safeClose(watcher);
+            watcher = null;
+        }
     }
 
     private ModelNode getCompositeUpdate(final List<ModelNode> updates) {
@@ -45,12 +45,14 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import org.jboss.as.controller.OperationFailedException;
@@ -1727,6 +1729,50 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertThat(ts.controller.deployed.keySet(), hasItems("foo.war", "failure.ear"));
     }
 
+    @Test
+    public void testDirectoryWatcher() throws Exception {
+        tmpDir.mkdirs();
+        final AtomicReference<CountDownLatch> changed = new AtomicReference<CountDownLatch>(new CountDownLatch(1));
+        DirectoryWatcher watcher = new DirectoryWatcher(tmpDir.toPath(), new Runnable() {
+            @Override
+            public void run() {
+                changed.get().countDown();
+            }
+        });
+        try {
+            watcher.start();
+            createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+            assertTrue(changed.get().await(30, TimeUnit.SECONDS));
+
+            // new directories are watched too
+            File nestedDir = new File(tmpDir, "nested");
+            changed.set(new CountDownLatch(1));
+            assertTrue(nestedDir.mkdir());
+            assertTrue(changed.get().await(30, TimeUnit.SECONDS));
+            changed.set(new CountDownLatch(1));
+            createFile(nestedDir, "bar.war");
+            assertTrue(changed.get().await(30, TimeUnit.SECONDS));
+
+            // the markers the scanner writes while it works are ignored
+            Thread.sleep(1000); // let any remaining events for bar.war arrive
+            changed.set(new CountDownLatch(1));
+            createFile("foo.war" + FileSystemDeploymentService.DEPLOYING);
+            assertFalse(changed.get().await(2, TimeUnit.SECONDS));
+
+            // the content of exploded deployments is not watched
+            File explodedDir = new File(tmpDir, "exploded.war");
+            changed.set(new CountDownLatch(1));
+            assertTrue(explodedDir.mkdir());
+            assertTrue(changed.get().await(30, TimeUnit.SECONDS));
+            Thread.sleep(1000);
+            changed.set(new CountDownLatch(1));
+            createFile(explodedDir, "index.html");
+            assertFalse(changed.get().await(2, TimeUnit.SECONDS));
+        } finally {
+            watcher.close();
+        }
+    }
+
     @Test
     public void testArchivePatterns() throws Exception {
         Pattern pattern = FileSystemDeploymentService.ARCHIVE_PATTERN;
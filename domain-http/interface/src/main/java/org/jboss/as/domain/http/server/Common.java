@@ -48,6 +48,7 @@ public class Common {
     public static final ResponseCodeHandler INTERNAL_SERVER_ERROR = new ResponseCodeHandler(500);
     public static final ResponseCodeHandler SERVICE_UNAVAIABLE = new ResponseCodeHandler(503);
 
+    static final String APPLICATION_DMR = "application/dmr";
     static final String APPLICATION_DMR_ENCODED = "application/dmr-encoded";
     static final String APPLICATION_JSON = "application/json";
     static final String TEXT_PLAIN = "text/plain";
@@ -98,12 +98,13 @@ class DomainApiCheckHandler implements HttpHandler {
     private boolean checkPostContentType(HttpServerExchange exchange) throws Exception {
         HeaderMap headers = exchange.getRequestHeaders();
         String contentType = extractContentType(headers.getFirst(Headers.CONTENT_TYPE));
-        if (!(Common.APPLICATION_JSON.equals(contentType) || Common.APPLICATION_DMR_ENCODED.equals(contentType))) {
+        if (!(Common.APPLICATION_JSON.equals(contentType) || Common.APPLICATION_DMR_ENCODED.equals(contentType)
+                || Common.APPLICATION_DMR.equals(contentType))) {
             // RFC 2616: 14.11 Content-Encoding
             // If the content-coding of an entity in a request message is not
             // acceptable to the origin server, the server SHOULD respond with a
             // status code of 415 (Unsupported Media Type).
-            ROOT_LOGGER.debug("Request rejected due to unsupported media type - should be one of (application/json,application/dmr-encoded).");
+            ROOT_LOGGER.debug("Request rejected due to unsupported media type - should be one of (application/json,application/dmr-encoded,application/dmr).");
             Common.UNSUPPORTED_MEDIA_TYPE.handleRequest(exchange);
             return false;
         }
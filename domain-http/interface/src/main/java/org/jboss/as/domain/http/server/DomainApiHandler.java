@@ -38,6 +38,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUC
 import static org.jboss.as.domain.http.server.DomainUtil.writeResponse;
 import static org.jboss.as.domain.http.server.logging.HttpServerLogger.ROOT_LOGGER;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -129,9 +130,13 @@ class DomainApiHandler implements HttpHandler {
         final HeaderMap requestHeaders = exchange.getRequestHeaders();
         final boolean cachable;
         final boolean get = exchange.getRequestMethod().equals(Methods.GET);
-        final boolean encode = Common.APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(Headers.ACCEPT))
+        final boolean binary = Common.APPLICATION_DMR.equals(requestHeaders.getFirst(Headers.ACCEPT))
+                || Common.APPLICATION_DMR.equals(requestHeaders.getFirst(Headers.CONTENT_TYPE));
+        final boolean encoded = Common.APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(Headers.ACCEPT))
                 || Common.APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(Headers.CONTENT_TYPE));
-        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(get).encode(encode);
+        // Failures are always sent as text, binary clients get them in the encoded form
+        final boolean encode = encoded || binary;
+        final OperationParameter.Builder operationParameterBuilder = new OperationParameter.Builder(get).encode(encode).binary(binary);
         final int streamIndex = getStreamIndex(exchange, requestHeaders);
 
         try {
@@ -141,7 +146,7 @@ class DomainApiHandler implements HttpHandler {
                 dmr = convertGetRequest(exchange, operation);
                 cachable = operation.getMaxAge() > 0;
             } else {
-                dmr = convertPostRequest(exchange, encode);
+                dmr = convertPostRequest(exchange, requestHeaders, encoded);
                 cachable = false;
             }
             boolean pretty = false;
@@ -300,10 +305,16 @@ class DomainApiHandler implements HttpHandler {
         return dmr;
     }
 
-    private ModelNode convertPostRequest(HttpServerExchange exchange, boolean encode) throws IOException {
+    private ModelNode convertPostRequest(HttpServerExchange exchange, HeaderMap requestHeaders, boolean encoded) throws IOException {
         InputStream in = new ChannelInputStream(exchange.getRequestChannel());
         try {
-            return encode ? ModelNode.fromBase64(in) : ModelNode.fromJSONStream(in);
+            if (Common.APPLICATION_DMR.equals(requestHeaders.getFirst(Headers.CONTENT_TYPE))) {
+                return ModelNode.fromStream(new BufferedInputStream(in));
+            } else if (encoded) {
+                return ModelNode.fromBase64(in);
+            } else {
+                return ModelNode.fromJSONStream(in);
+            }
         } finally {
             IoUtils.safeClose(in);
         }
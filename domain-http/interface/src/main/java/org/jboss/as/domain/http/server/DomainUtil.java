@@ -28,6 +28,9 @@ import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -48,14 +51,23 @@ import org.xnio.IoUtils;
  */
 public class DomainUtil {
 
+    private static final int BUFFER_SIZE = 8192;
+
     public static void writeResponse(final HttpServerExchange exchange, final int status, ModelNode response,
             OperationParameter operationParameter) {
 
         exchange.setResponseCode(status);
 
         final HeaderMap responseHeaders = exchange.getResponseHeaders();
-        final String contentType = operationParameter.isEncode() ? Common.APPLICATION_DMR_ENCODED : Common.APPLICATION_JSON;
-        responseHeaders.put(Headers.CONTENT_TYPE, contentType + "; charset=" + Common.UTF_8);
+        final String contentType;
+        if (operationParameter.isBinary()) {
+            contentType = Common.APPLICATION_DMR;
+        } else if (operationParameter.isEncode()) {
+            contentType = Common.APPLICATION_DMR_ENCODED + "; charset=" + Common.UTF_8;
+        } else {
+            contentType = Common.APPLICATION_JSON + "; charset=" + Common.UTF_8;
+        }
+        responseHeaders.put(Headers.CONTENT_TYPE, contentType);
 
         writeCacheHeaders(exchange, status, operationParameter);
 
@@ -65,9 +77,23 @@ public class DomainUtil {
             response = response.get(RESULT);
         }
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (exchange.isBlocking()) {
+                // Serialize straight to the exchange rather than building the whole response in memory first, large
+                // responses such as a recursive read-resource with runtime attributes run to tens of megabytes.
+                // The response is sent chunked, and closing the stream ends the exchange.
+                final OutputStream out = new BufferedOutputStream(exchange.getOutputStream(), BUFFER_SIZE);
+                try {
+                    writeResponse(response, out, operationParameter);
+                } finally {
+                    IoUtils.safeClose(out);
+                }
+            } else {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                writeResponse(response, baos, operationParameter);
+                byte[] data = baos.toByteArray();
+                responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
+                exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -155,16 +181,25 @@ public class DomainUtil {
         return "application/octet-stream";
     }
 
-    private static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
-        if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
+    /**
+     * Writes a model node in the format requested by the operation parameters.
+     *
+     * @param modelNode the model node to write
+     * @param out the stream to write to, which is flushed but not closed
+     * @param operationParameter the operation parameters
+     * @throws IOException if the node cannot be written
+     */
+    static void writeResponse(final ModelNode modelNode, final OutputStream out, final OperationParameter operationParameter) throws IOException {
+        if (operationParameter.isBinary()) {
+            modelNode.writeExternal(out);
+            out.flush();
+        } else if (operationParameter.isEncode()) {
             modelNode.writeBase64(out);
             out.flush();
-            return baos.toByteArray();
         } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            return json.getBytes(StandardCharsets.UTF_8);
+            final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            modelNode.writeJSONString(writer, !operationParameter.isPretty());
+            writer.flush();
         }
     }
 
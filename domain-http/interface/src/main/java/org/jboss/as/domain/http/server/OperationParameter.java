@@ -14,6 +14,7 @@ public class OperationParameter {
     private final int maxAge;
     private final ETag etag;
     private final boolean encode;
+    private final boolean binary;
     private final boolean pretty;
 
     private OperationParameter(Builder builder) {
@@ -21,6 +22,7 @@ public class OperationParameter {
         this.maxAge = builder.maxAge;
         this.etag = builder.etag;
         this.encode = builder.encode;
+        this.binary = builder.binary;
         this.pretty = builder.pretty;
     }
 
@@ -40,6 +42,10 @@ public class OperationParameter {
         return encode;
     }
 
+    public boolean isBinary() {
+        return binary;
+    }
+
     public boolean isPretty() {
         return pretty;
     }
@@ -51,6 +57,7 @@ public class OperationParameter {
         sb.append(", maxAge=").append(maxAge);
         sb.append(", etag=").append(etag);
         sb.append(", encode=").append(encode);
+        sb.append(", binary=").append(binary);
         sb.append(", pretty=").append(pretty);
         sb.append('}');
         return sb.toString();
@@ -67,6 +74,7 @@ public class OperationParameter {
         private ETag etag;
         private boolean pretty;
         private boolean encode;
+        private boolean binary;
 
         /**
          * Creates a new builder.
@@ -79,6 +87,7 @@ public class OperationParameter {
          *     <li>maxAge (0)</li>
          *     <li>etag (null)</li>
          *     <li>encode (false)</li>
+         *     <li>binary (false)</li>
          *     <li>pretty (false)</li>
          * </ul>
          *
@@ -88,6 +97,7 @@ public class OperationParameter {
             this.get = get;
             this.maxAge = 0;
             this.encode = false;
+            this.binary = false;
             this.pretty = false;
         }
 
@@ -106,6 +116,11 @@ public class OperationParameter {
             return this;
         }
 
+        public Builder binary(boolean binary) {
+            this.binary = binary;
+            return this;
+        }
+
         public Builder pretty(boolean pretty) {
             this.pretty = pretty;
             return this;
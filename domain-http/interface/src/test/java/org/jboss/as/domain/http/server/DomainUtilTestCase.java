@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the formats the HTTP management API writes responses in, and that the binary formats are smaller than JSON
+ * for a large model.
+ */
+public class DomainUtilTestCase {
+
+    @Test
+    public void testResponseFormats() throws Exception {
+        final ModelNode model = createLargeModel();
+
+        final byte[] json = write(model, new OperationParameter.Builder(false).build());
+        final byte[] encoded = write(model, new OperationParameter.Builder(false).encode(true).build());
+        final byte[] binary = write(model, new OperationParameter.Builder(false).encode(true).binary(true).build());
+
+        Assert.assertEquals(model.toJSONString(true), new String(json, Common.UTF_8));
+        Assert.assertEquals(model, ModelNode.fromBase64(new ByteArrayInputStream(encoded)));
+        Assert.assertEquals(model, ModelNode.fromStream(new ByteArrayInputStream(binary)));
+
+        Assert.assertTrue(binary.length < encoded.length);
+        Assert.assertTrue(binary.length < json.length);
+        Assert.assertTrue(gzip(binary) < binary.length);
+        Assert.assertTrue(gzip(json) < json.length);
+    }
+
+    @Test
+    public void testPrettyJson() throws Exception {
+        final ModelNode model = new ModelNode();
+        model.get("a").set(1);
+        model.get("b", "c").set("d");
+        final byte[] compact = write(model, new OperationParameter.Builder(false).build());
+        final byte[] pretty = write(model, new OperationParameter.Builder(false).pretty(true).build());
+        Assert.assertEquals(model.toJSONString(true), new String(compact, Common.UTF_8));
+        Assert.assertEquals(model.toJSONString(false), new String(pretty, Common.UTF_8));
+    }
+
+    private static ModelNode createLargeModel() {
+        final ModelNode model = new ModelNode();
+        for (int i = 0; i < 200; i++) {
+            final ModelNode resource = model.get("subsystem", "subsystem-" + i);
+            for (int j = 0; j < 20; j++) {
+                final ModelNode child = resource.get("child", "child-" + j);
+                child.get("name").set("child-" + j);
+                child.get("enabled").set(j % 2 == 0);
+                child.get("count").set(i * j);
+                child.get("timestamp").set(System.currentTimeMillis());
+                child.get("description").set("The child resource " + j + " of subsystem " + i);
+                child.get("undefined");
+                for (int k = 0; k < 5; k++) {
+                    child.get("values").add("value-" + k);
+                }
+            }
+        }
+        return model;
+    }
+
+    private static byte[] write(ModelNode model, OperationParameter operationParameter) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DomainUtil.writeResponse(model, out, operationParameter);
+        return out.toByteArray();
+    }
+
+    private static int gzip(byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(data);
+        gzip.close();
+        return out.size();
+    }
+}
@@ -25,6 +25,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FIL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
@@ -38,6 +39,7 @@ import org.jboss.as.controller.audit.FileAuditLogHandler;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.services.path.PathManagerService;
@@ -68,7 +70,31 @@ public class FileAuditLogHandlerResourceDefinition extends AuditLogHandlerResour
         .setMinSize(1)
         .build();
 
-    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[]{FORMATTER, PATH, RELATIVE_TO, MAX_FAILURE_COUNT};
+    public static final SimpleAttributeDefinition DURABILITY = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.DURABILITY, ModelType.STRING)
+        .setAllowNull(true)
+        .setAllowExpression(true)
+        .setDefaultValue(new ModelNode(FileAuditLogHandler.Durability.RECORD.name()))
+        .setValidator(new EnumValidator<>(FileAuditLogHandler.Durability.class, true, true))
+        .build();
+
+    public static final SimpleAttributeDefinition QUEUE_LENGTH = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.QUEUE_LENGTH, ModelType.INT)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .build();
+
+    public static final SimpleAttributeDefinition BACKPRESSURE_COUNT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.BACKPRESSURE_COUNT, ModelType.LONG)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .build();
+
+    public static final SimpleAttributeDefinition DROPPED_COUNT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.DROPPED_COUNT, ModelType.LONG)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .build();
+
+    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[]{FORMATTER, PATH, RELATIVE_TO, MAX_FAILURE_COUNT, DURABILITY};
+
+    private static final AttributeDefinition[] QUEUE_METRICS = new AttributeDefinition[] {QUEUE_LENGTH, BACKPRESSURE_COUNT, DROPPED_COUNT};
 
 
     public FileAuditLogHandlerResourceDefinition(ManagedAuditLogger auditLogger, PathManagerService pathManager) {
@@ -95,6 +121,10 @@ public class FileAuditLogHandlerResourceDefinition extends AuditLogHandlerResour
         for (AttributeDefinition def : ATTRIBUTES){
             resourceRegistration.registerReadWriteAttribute(def, null, write);
         }
+        QueueMetricsHandler metrics = new QueueMetricsHandler(auditLogger);
+        for (AttributeDefinition def : QUEUE_METRICS) {
+            resourceRegistration.registerMetric(def, metrics);
+        }
     }
 
     private static FileAuditLogHandler createHandler(final PathManagerService pathManager,
@@ -105,7 +135,29 @@ public class FileAuditLogHandlerResourceDefinition extends AuditLogHandlerResour
         final String path = PATH.resolveModelAttribute(context, model).asString();
         final String formatterName = FORMATTER.resolveModelAttribute(context, model).asString();
         final int maxFailureCount = MAX_FAILURE_COUNT.resolveModelAttribute(context, model).asInt();
-        return new FileAuditLogHandler(name, formatterName, maxFailureCount, pathManager, path, relativeTo);
+        final FileAuditLogHandler.Durability durability = FileAuditLogHandler.Durability.valueOf(DURABILITY.resolveModelAttribute(context, model).asString());
+        return new FileAuditLogHandler(name, formatterName, maxFailureCount, pathManager, path, relativeTo, durability);
+    }
+
+    private static class QueueMetricsHandler extends AbstractRuntimeOnlyHandler {
+        private final ManagedAuditLogger auditLogger;
+
+        QueueMetricsHandler(ManagedAuditLogger auditLogger) {
+            this.auditLogger = auditLogger;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            String handlerName = Util.getNameFromAddress(operation.require(OP_ADDR));
+            if (attr.equals(QUEUE_LENGTH.getName())) {
+                context.getResult().set(auditLogger.getHandlerQueueLength(handlerName));
+            } else if (attr.equals(BACKPRESSURE_COUNT.getName())) {
+                context.getResult().set(auditLogger.getHandlerBackpressureCount(handlerName));
+            } else if (attr.equals(DROPPED_COUNT.getName())) {
+                context.getResult().set(auditLogger.getHandlerDroppedCount(handlerName));
+            }
+        }
     }
 
     private static class FileAuditLogHandlerAddHandler extends AbstractAddStepHandler {
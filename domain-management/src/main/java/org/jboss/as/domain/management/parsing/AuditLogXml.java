@@ -248,6 +248,13 @@ public class AuditLogXml {
                     FileAuditLogHandlerResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, add, reader);
                     break;
                 }
+                case DURABILITY: {
+                    if (expectedNs.getMajorVersion() < 3) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    FileAuditLogHandlerResourceDefinition.DURABILITY.parseAndSetParameter(value, add, reader);
+                    break;
+                }
                 default: {
                     throw unexpectedAttribute(reader, i);
                 }
@@ -686,6 +693,7 @@ public class AuditLogXml {
                     FileAuditLogHandlerResourceDefinition.MAX_FAILURE_COUNT.marshallAsAttribute(handler, writer);
                     FileAuditLogHandlerResourceDefinition.PATH.marshallAsAttribute(handler, writer);
                     FileAuditLogHandlerResourceDefinition.RELATIVE_TO.marshallAsAttribute(handler, writer);
+                    FileAuditLogHandlerResourceDefinition.DURABILITY.marshallAsAttribute(handler, writer);
                     writer.writeEndElement();
                 }
             }
@@ -374,6 +374,35 @@ public class AuditLogHandlerBootEnabledTestCase extends AbstractAuditLogHandlerT
         checkOpsEqual(op, ops.get(0));
     }
 
+    @Test
+    public void testBatchDurabilityFileAuditLogHandler() throws Exception {
+        File file1 = new File(logDir, "test-file.log");
+        File file2 = new File(logDir, "test-file2.log");
+
+        ModelNode op = createAddFileHandlerOperation("file2", "test-formatter", "test-file2.log");
+        op.get(FileAuditLogHandlerResourceDefinition.DURABILITY.getName()).set("BATCH");
+        executeForResult(op);
+        readFile(file1, 2);
+
+        op = createAddHandlerReferenceOperation("file2");
+        executeForResult(op);
+        readFile(file1, 3);
+
+        ModelNode result = executeForResult(Util.getReadAttributeOperation(createFileHandlerAddress("file2"), FileAuditLogHandlerResourceDefinition.DROPPED_COUNT.getName()));
+        Assert.assertEquals(0, result.asLong());
+
+        //Removing the reference stops the handler, which writes out everything that has been queued
+        op = createRemoveHandlerReferenceOperation("file2");
+        executeForResult(op);
+        List<ModelNode> records1 = readFile(file1, 5);
+        List<ModelNode> records2 = readFile(file2, 3);
+        Assert.assertEquals(records1.get(2), records2.get(0));
+        Assert.assertEquals(records1.get(3), records2.get(1));
+        Assert.assertEquals(records1.get(4), records2.get(2));
+        List<ModelNode> ops = checkBootRecordHeader(records2.get(2), 1, "core", false, false, true);
+        checkOpsEqual(op, ops.get(0));
+    }
+
     @Test
     public void testAddRemoveSyslogAuditLogHandler() throws Exception {
         File file1 = new File(logDir, "test-file.log");
@@ -55,6 +55,7 @@ public class DomainOperationContext {
     private final ConcurrentMap<String, ModelNode> hostControllerResults = new ConcurrentHashMap<String, ModelNode>();
     private final ConcurrentMap<ServerIdentity, ModelNode> serverResults = new ConcurrentHashMap<ServerIdentity, ModelNode>();
     private final ConcurrentMap<String, HostControllerUpdateTask.ExecutedHostRequest> finalResultFutures = new ConcurrentHashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
+    private final ConcurrentMap<TransformingProxyController, ConcurrentMap<ModelNode, ModelNode>> transformedServerOperations = new ConcurrentHashMap<>();
 
     private final Map<String, Boolean> serverGroupStatuses = new ConcurrentHashMap<String, Boolean>();
     private volatile boolean completeRollback = true;
@@ -156,7 +157,7 @@ public class DomainOperationContext {
      * Transform an operation for a server. This will also delegate to the host-controller result-transformer.
      */
     public OperationTransformer.TransformedOperation transformServerOperation(final String hostName, final TransformingProxyController remoteProxyController, final OperationContext context, final ModelNode original) throws OperationFailedException {
-        final OperationTransformer.TransformedOperation transformed = remoteProxyController.transformOperation(context, original);
+        final OperationTransformer.TransformedOperation transformed = transformServerOperation(remoteProxyController, context, original);
         final HostControllerUpdateTask.ExecutedHostRequest hostRequest = finalResultFutures.get(hostName);
         if(hostRequest == null) {
             // in case it's local hosts-controller
@@ -171,6 +172,42 @@ public class DomainOperationContext {
         });
     }
 
+    /*
+     * The servers of a remote host share the proxy of the host, and usually get the same operation. A transformation
+     * that only rewrites the operation is therefore done once per proxy. Rejection policies and result transformers
+     * may keep state about the operation they were created for, so a transformation that uses them is done again for
+     * every server.
+     */
+    private OperationTransformer.TransformedOperation transformServerOperation(final TransformingProxyController proxyController, final OperationContext context, final ModelNode original) throws OperationFailedException {
+        ConcurrentMap<ModelNode, ModelNode> transformedOperations = transformedServerOperations.get(proxyController);
+        if (transformedOperations == null) {
+            transformedOperations = new ConcurrentHashMap<>();
+            final ConcurrentMap<ModelNode, ModelNode> existing = transformedServerOperations.putIfAbsent(proxyController, transformedOperations);
+            if (existing != null) {
+                transformedOperations = existing;
+            }
+        }
+        final ModelNode transformedOperation = transformedOperations.get(original);
+        if (transformedOperation != null) {
+            // give each server its own copy of the shared operation
+            return new OperationTransformer.TransformedOperation(transformedOperation.clone(), OperationResultTransformer.ORIGINAL_RESULT);
+        }
+        // the transformation may modify the operation it is given
+        final ModelNode key = original.clone();
+        final OperationTransformer.TransformedOperation transformed = proxyController.transformOperation(context, original);
+        if (isStateless(transformed)) {
+            transformedOperations.putIfAbsent(key, transformed.getTransformedOperation().clone());
+        }
+        return transformed;
+    }
+
+    private static boolean isStateless(final OperationTransformer.TransformedOperation transformed) {
+        return transformed.getClass() == OperationTransformer.TransformedOperation.class
+                && transformed.getTransformedOperation() != null
+                && transformed.getRejectPolicy() == OperationTransformer.DEFAULT_REJECTION_POLICY
+                && transformed.getResultTransformer() == OperationResultTransformer.ORIGINAL_RESULT;
+    }
+
     protected void recordHostRequest(final String hostName, final HostControllerUpdateTask.ExecutedHostRequest request) {
         finalResultFutures.put(hostName, request);
     }
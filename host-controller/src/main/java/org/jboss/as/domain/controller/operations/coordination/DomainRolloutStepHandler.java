@@ -69,6 +69,7 @@ import org.jboss.as.controller.remote.ResponseAttachmentInputStreamSupport;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
+import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.plan.RolloutPlanController;
@@ -311,7 +312,14 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 }
             };
             RolloutPlanController rolloutPlanController = new RolloutPlanController(opsByGroup, rolloutPlan, domainOperationContext, taskExecutor, executorService);
-            RolloutPlanController.Result planResult = rolloutPlanController.execute();
+            // The model does not change during the rollout, so the operations for all servers are transformed against one copy of it
+            context.attach(Transformers.ORIGINAL_MODEL, context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true));
+            final RolloutPlanController.Result planResult;
+            try {
+                planResult = rolloutPlanController.execute();
+            } finally {
+                context.detach(Transformers.ORIGINAL_MODEL);
+            }
             if (trace) {
                 HOST_CONTROLLER_LOGGER.tracef("Rollout plan result is %s", planResult);
             }
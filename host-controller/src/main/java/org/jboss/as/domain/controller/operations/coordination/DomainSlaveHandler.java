@@ -45,6 +45,7 @@ import org.jboss.as.controller.CurrentOperationIdHolder;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.TransformingProxyController;
 import org.jboss.as.controller.client.OperationResponse;
@@ -52,6 +53,7 @@ import org.jboss.as.controller.operations.DomainOperationTransformer;
 import org.jboss.as.controller.operations.OperationAttachments;
 import org.jboss.as.controller.remote.ResponseAttachmentInputStreamSupport;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.host.controller.mgmt.DomainControllerRuntimeIgnoreTransformationRegistry;
 import org.jboss.dmr.ModelNode;
@@ -88,28 +90,36 @@ public class DomainSlaveHandler implements OperationStepHandler {
         final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results = new ArrayList<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>>();
         final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new HashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
         final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
-        for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
-            // Create the proxy task
-            final String host = entry.getKey();
-            final TransformingProxyController proxyController = (TransformingProxyController) entry.getValue();
-            List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
-            ModelNode op = operation;
-            if(transformers != null) {
-                for(final DomainOperationTransformer transformer : transformers) {
-                    op = transformer.transform(context, op);
-                    // Set the flag for host controller operations
-                    op.get(OPERATION_HEADERS, EXECUTE_FOR_COORDINATOR).set(true);
+        // The model does not change while the operation is transformed for the hosts, so they can share one copy of it
+        if (!hostProxies.isEmpty()) {
+            context.attach(Transformers.ORIGINAL_MODEL, context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true));
+        }
+        try {
+            for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
+                // Create the proxy task
+                final String host = entry.getKey();
+                final TransformingProxyController proxyController = (TransformingProxyController) entry.getValue();
+                List<DomainOperationTransformer> transformers = context.getAttachment(OperationAttachments.SLAVE_SERVER_OPERATION_TRANSFORMERS);
+                ModelNode op = operation;
+                if(transformers != null) {
+                    for(final DomainOperationTransformer transformer : transformers) {
+                        op = transformer.transform(context, op);
+                        // Set the flag for host controller operations
+                        op.get(OPERATION_HEADERS, EXECUTE_FOR_COORDINATOR).set(true);
+                    }
                 }
-            }
 
 
-            ModelNode clonedOp = runtimeIgnoreTransformationRegistry.piggyBackMissingInformationOnHeader(context, proxyController, entry.getKey(), op.clone());
-            clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
-            final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController);
-            // Execute the operation on the remote host
-            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
-            domainOperationContext.recordHostRequest(host, finalResult);
-            finalResults.put(host, finalResult);
+                ModelNode clonedOp = runtimeIgnoreTransformationRegistry.piggyBackMissingInformationOnHeader(context, proxyController, entry.getKey(), op.clone());
+                clonedOp.get(OPERATION_HEADERS, DomainControllerLockIdUtils.DOMAIN_CONTROLLER_LOCK_ID).set(CurrentOperationIdHolder.getCurrentOperationID());
+                final HostControllerUpdateTask task = new HostControllerUpdateTask(host, clonedOp, context, proxyController);
+                // Execute the operation on the remote host
+                final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
+                domainOperationContext.recordHostRequest(host, finalResult);
+                finalResults.put(host, finalResult);
+            }
+        } finally {
+            context.detach(Transformers.ORIGINAL_MODEL);
         }
 
         // Wait for all hosts to reach the prepared state
@@ -88,6 +88,7 @@ import org.jboss.as.host.controller.discovery.DiscoveryOption;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
+import org.jboss.as.host.controller.mgmt.DomainRemoteDeltaRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.DomainRemoteFileRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
 import org.jboss.as.host.controller.mgmt.HostInfo;
@@ -101,6 +102,7 @@ import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.RemoteDeltaRequestAndHandler;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
 import org.jboss.as.version.ProductConfig;
@@ -134,6 +136,9 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Whether deployment content is fetched from the master by only transferring the chunks not found locally */
+    private static final String DELTA_TRANSFER_PROPERTY = "jboss.domain.content.delta-transfer";
+    private static final boolean DELTA_TRANSFER = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(DELTA_TRANSFER_PROPERTY, "false"));
 
     private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -623,6 +628,61 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetContentManifestRequest extends AbstractManagementRequest<RemoteDeltaRequestAndHandler.Manifest, Void> {
+        private final String hash;
+
+        private GetContentManifestRequest(final String hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_CONTENT_MANIFEST_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<RemoteDeltaRequestAndHandler.Manifest> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainRemoteDeltaRequestAndHandler.INSTANCE.sendManifestRequest(output, hash);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<RemoteDeltaRequestAndHandler.Manifest> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(DomainRemoteDeltaRequestAndHandler.INSTANCE.handleManifestResponse(input));
+        }
+    }
+
+    private class GetContentChunksRequest extends AbstractManagementRequest<File, Void> {
+        private final String hash;
+        private final RemoteDeltaRequestAndHandler.Plan plan;
+        private final File localPath;
+
+        private GetContentChunksRequest(final String hash, final RemoteDeltaRequestAndHandler.Plan plan, final File localPath) {
+            this.hash = hash;
+            this.plan = plan;
+            this.localPath = localPath;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_CONTENT_CHUNKS_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainRemoteDeltaRequestAndHandler.INSTANCE.sendChunksRequest(output, hash, plan);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainRemoteDeltaRequestAndHandler.INSTANCE.handleChunksResponse(input, plan, HashUtil.hexStringToByteArray(hash), localPath);
+            resultHandler.done(localPath);
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
@@ -677,15 +737,57 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                final boolean delta = DELTA_TRANSFER && repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT;
+                if (delta) {
+                    final File file = getContentDelta(relativePath, localFileRepository);
+                    if (file != null) {
+                        return file;
+                    }
+                }
+                final File file;
                 try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    file = handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
                 } catch (Exception e) {
                     throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
                 }
+                if (delta && file != null) {
+                    try {
+                        RemoteDeltaRequestAndHandler.indexContent(file);
+                    } catch (IOException e) {
+                        ROOT_LOGGER.debugf(e, "Could not index content %s", relativePath);
+                    }
+                }
+                return file;
             } else {
                 return localFileRepository.getFile(relativePath);
             }
         }
+
+        /**
+         * Gets deployment content by only transferring the chunks of it that are not found in the local content.
+         *
+         * @return the content, or {@code null} if it should be transferred as a whole instead
+         */
+        private File getContentDelta(final String hash, final HostFileRepository localFileRepository) {
+            final File localPath = localFileRepository.getDeploymentRoot(new ContentReference(hash, hash));
+            try {
+                final RemoteDeltaRequestAndHandler.Manifest manifest = handler.executeRequest(new GetContentManifestRequest(hash), null).getResult().get();
+                if (manifest == null) {
+                    return null;
+                }
+                final RemoteDeltaRequestAndHandler.Plan plan = DomainRemoteDeltaRequestAndHandler.INSTANCE.plan(localPath.getParentFile().getParentFile(), manifest);
+                if (plan.getLocalBytes() == 0) {
+                    // nothing to gain
+                    return null;
+                }
+                ROOT_LOGGER.debugf("Fetching %d of %d chunks of content %s, %d bytes found locally", plan.getNumMissingChunks(), manifest.getNumChunks(), hash, plan.getLocalBytes());
+                return handler.executeRequest(new GetContentChunksRequest(hash, plan, localPath), null).getResult().get();
+            } catch (Exception e) {
+                // e.g. the master does not support it
+                ROOT_LOGGER.debugf(e, "Could not fetch the changes of content %s, fetching all of it", hash);
+                return null;
+            }
+        }
     };
 
     private class FutureClient extends AsyncFutureTask<MasterDomainControllerClient>{
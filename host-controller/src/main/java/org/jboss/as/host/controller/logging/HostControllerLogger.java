@@ -1223,4 +1223,8 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.INFO)
     @Message( id = 158, value = "Error persisting server autostart status")
     void couldNotPersistAutoStartServerStatus(@Cause Throwable cause);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 159, value = "Invalid value '%s' for system property %s, using %d instead")
+    void invalidSystemPropertyValue(String value, String property, int defaultValue);
 }
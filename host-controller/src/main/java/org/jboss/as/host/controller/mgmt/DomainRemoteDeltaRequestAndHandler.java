@@ -0,0 +1,54 @@
+/*
+* JBoss, Home of Professional Open Source.
+* Copyright 2015, Red Hat, Inc., and individual contributors
+* as indicated by the @author tags. See the copyright.txt file in the
+* distribution for a full listing of individual contributors.
+*
+* This is free software; you can redistribute it and/or modify it
+* under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation; either version 2.1 of
+* the License, or (at your option) any later version.
+*
+* This software is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+* Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this software; if not, write to the Free
+* Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+* 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+*/
+package org.jboss.as.host.controller.mgmt;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import org.jboss.as.repository.RemoteDeltaRequestAndHandler;
+
+/**
+ * Transfers the changed parts of deployment content from the master to a slave HC.
+ */
+public class DomainRemoteDeltaRequestAndHandler extends RemoteDeltaRequestAndHandler {
+
+    public static final RemoteDeltaProtocolIdMapper MAPPER = new RemoteDeltaProtocolIdMapper() {
+        public byte paramFilePath() {
+            return DomainControllerProtocol.PARAM_FILE_PATH;
+        }
+
+        public byte paramNumChunks() {
+            return DomainControllerProtocol.PARAM_NUM_CHUNKS;
+        }
+
+        public byte paramChunk() {
+            return DomainControllerProtocol.PARAM_CHUNK;
+        }
+    };
+
+    public static final DomainRemoteDeltaRequestAndHandler INSTANCE = new DomainRemoteDeltaRequestAndHandler(null, null);
+
+    public DomainRemoteDeltaRequestAndHandler(Executor asyncExecutor, Semaphore transferPermits) {
+        super(MAPPER, asyncExecutor, transferPermits);
+    }
+
+}
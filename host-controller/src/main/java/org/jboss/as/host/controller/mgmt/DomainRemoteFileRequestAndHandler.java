@@ -22,6 +22,7 @@
 package org.jboss.as.host.controller.mgmt;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import org.jboss.as.repository.RemoteFileRequestAndHandler;
 
@@ -63,4 +64,8 @@ public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandl
         super(MAPPER, asyncExecutor);
     }
 
+    public DomainRemoteFileRequestAndHandler(Executor asyncExecutor, Semaphore transferPermits) {
+        super(MAPPER, asyncExecutor, transferPermits);
+    }
+
 }
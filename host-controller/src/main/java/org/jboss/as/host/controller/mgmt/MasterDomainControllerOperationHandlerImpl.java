@@ -24,6 +24,7 @@ import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.domain.controller.DomainController;
@@ -40,6 +41,7 @@ import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.LocalDeploymentFileRepository;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
 import org.jboss.dmr.ModelNode;
 
@@ -52,10 +54,19 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private final DomainController domainController;
     private final Executor asyncExecutor;
+    private final Semaphore transferPermits;
 
     public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor) {
+        this(domainController, asyncExecutor, null);
+    }
+
+    /**
+     * @param transferPermits limits the number of content transfers to slaves at once, shared by all slaves. May be {@code null}
+     */
+    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor, final Semaphore transferPermits) {
         this.domainController = domainController;
         this.asyncExecutor = asyncExecutor;
+        this.transferPermits = transferPermits;
     }
 
     @Override
@@ -68,6 +79,12 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
             } case DomainControllerProtocol.GET_FILE_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new GetFileOperation();
+            } case DomainControllerProtocol.GET_CONTENT_MANIFEST_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetContentManifestOperation();
+            } case DomainControllerProtocol.GET_CONTENT_CHUNKS_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetContentChunksOperation();
             }
         }
         return handlers.resolveNext();
@@ -91,7 +108,7 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private class GetFileOperation extends AbstractHostRequestHandler {
 
-        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor);
+        private final DomainRemoteFileRequestAndHandler remoteSupport = new DomainRemoteFileRequestAndHandler(asyncExecutor, transferPermits);
 
         @Override
         void handleRequest(String hostId, DataInput input, ManagementRequestContext<Void> context) throws IOException {
@@ -108,7 +125,8 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
                         }
                         case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
                             byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                            return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                            // content stored as chunks is rebuilt, as the whole file is sent
+                            return LocalDeploymentFileRepository.ensureContent(localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash)));
                         }
                         default: {
                             throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
@@ -121,6 +139,22 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         }
     }
 
+    private class GetContentManifestOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ManagementRequestContext<Void> context) throws IOException {
+            new DomainRemoteDeltaRequestAndHandler(asyncExecutor, null).handleManifestRequest(input, domainController.getLocalFileRepository(), context);
+        }
+    }
+
+    private class GetContentChunksOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ManagementRequestContext<Void> context) throws IOException {
+            new DomainRemoteDeltaRequestAndHandler(asyncExecutor, transferPermits).handleChunksRequest(input, domainController.getLocalFileRepository(), context);
+        }
+    }
+
     abstract static class AbstractHostRequestHandler implements ManagementRequestHandler<ModelNode, Void> {
 
         abstract void handleRequest(final String hostId, DataInput input, ManagementRequestContext<Void> context) throws IOException;
@@ -25,6 +25,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 
 import java.io.File;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.controller.CurrentOperationIdHolder;
@@ -56,6 +57,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.remoting3.Channel;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Installs {@link MasterDomainControllerOperationHandlerImpl} which handles requests from slave DC to master DC.
@@ -66,6 +68,12 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
 
     public static final ServiceName SERVICE_NAME = DomainController.SERVICE_NAME.append(ModelControllerClientOperationHandlerFactoryService.OPERATION_HANDLER_NAME_SUFFIX);
 
+    /**
+     * The maximum number of deployment content transfers to slaves that can happen at once, across all slaves.
+     * Zero or less means no limit.
+     */
+    public static final String MAX_CONCURRENT_TRANSFERS = "jboss.domain.master.max-concurrent-transfers";
+
     private final DomainController domainController;
     private final HostControllerRegistrationHandler.OperationExecutor operationExecutor;
     private final TransactionalOperationExecutor txOperationExecutor;
@@ -73,6 +81,7 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
     private final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
     private final File tempDir;
     private final HostRegistrations slaveHostRegistrations;
+    private final Semaphore transferPermits = createTransferPermits();
 
     public MasterDomainControllerOperationHandlerService(final DomainController domainController, final HostControllerRegistrationHandler.OperationExecutor operationExecutor,
                                                          TransactionalOperationExecutor txOperationExecutor, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
@@ -99,7 +108,7 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
         handler.addHandlerFactory(new HostControllerRegistrationHandler(handler, domainController, operationExecutor,
                 getExecutor(), runtimeIgnoreTransformationRegistry, slaveHostRegistrations));
         handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler, getResponseAttachmentSupport(), getClientRequestExecutor()));
-        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, getExecutor()));
+        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, getExecutor(), transferPermits));
         handler.addHandlerFactory(pongRequestHandler);
         handler.addHandlerFactory(new DomainTransactionalProtocolOperationHandler(txOperationExecutor, handler, getResponseAttachmentSupport()));
         channel.receiveMessage(handler.getReceiver());
@@ -198,4 +207,16 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
             this.domainId = domainId;
         }
     }
+
+    private static Semaphore createTransferPermits() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_CONCURRENT_TRANSFERS, "0");
+        try {
+            final int permits = Integer.parseInt(value.trim());
+            return permits > 0 ? new Semaphore(permits, true) : null;
+        } catch (NumberFormatException e) {
+            // zero means no limit
+            HostControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, MAX_CONCURRENT_TRANSFERS, 0);
+            return null;
+        }
+    }
 }
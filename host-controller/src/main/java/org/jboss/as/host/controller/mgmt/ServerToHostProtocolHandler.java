@@ -67,6 +67,7 @@ import org.jboss.as.protocol.mgmt.ProtocolUtils;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.DeploymentFileRepository;
+import org.jboss.as.repository.LocalDeploymentFileRepository;
 import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.as.server.mgmt.domain.DomainServerProtocol;
 import org.jboss.as.server.mgmt.domain.ServerToHostRemoteFileRequestAndHandler;
@@ -306,7 +307,8 @@ public class ServerToHostProtocolHandler implements ManagementRequestHandlerFact
             final RemoteFileRequestAndHandler.RootFileReader reader = new RemoteFileRequestAndHandler.RootFileReader() {
                 public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
                     byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                    return deploymentFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                    // content stored as chunks is rebuilt, as the whole file is sent
+                    return LocalDeploymentFileRepository.ensureContent(deploymentFileRepository.getDeploymentRoot(new ContentReference(filePath, hash)));
                 }
             };
             ServerToHostRemoteFileRequestAndHandler.INSTANCE.handleRequest(input, reader, context);
@@ -19,12 +19,20 @@
 package org.jboss.as.host.controller.operations;
 
 
+import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTO_START;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
@@ -43,7 +51,9 @@ import org.jboss.as.host.controller.resources.ServerConfigResourceDefinition;
 import org.jboss.as.process.ProcessInfo;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.security.manager.WildFlySecurityManager;
+import org.wildfly.security.manager.action.GetAccessControlContextAction;
 
 /**
  * Starts or reconnect all auto-start servers (at boot).
@@ -53,6 +63,9 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public class StartServersHandler implements OperationStepHandler {
 
     public static final boolean START_BLOCKING = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("org.jboss.as.host.start.servers.sequential", "false"));
+    private static final String MAX_PARALLEL_PROPERTY = "org.jboss.as.host.start.servers.max-parallel";
+    /** The maximum number of servers that are started at the same time, unless they are started sequentially */
+    public static final int MAX_PARALLEL = getMaxParallel();
     public static final String OPERATION_NAME = "start-servers";
 
   //Private method does not need resources for description
@@ -108,34 +121,96 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel, OperationContext context) throws OperationFailedException {
+        final List<String> serverNames = new ArrayList<>();
         for(final Property serverProp : servers.asPropertyList()) {
             String serverName = serverProp.getName();
             if (ServerConfigResourceDefinition.AUTO_START.resolveModelAttribute(context, serverProp.getValue()).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverNames.add(serverName);
             }
         }
+        startServers(serverNames, domainModel);
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel, final OperationContext context){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final List<String> serverNames = new ArrayList<>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverNames.add(serverName);
             } else if (info != null){
                 // Reconnect the server using the current authKey
                 final byte[] authKey = info.getAuthKey();
                 serverInventory.reconnectServer(serverName, domainModel, authKey, info.isRunning(), info.isStopping());
             }
         }
+        startServers(serverNames, domainModel);
+    }
+
+    /**
+     * Starts the servers. Unless the servers have to be started sequentially, up to {@link #MAX_PARALLEL} servers are
+     * started at the same time, as most of the time taken to start a server is spent waiting for the process controller
+     * and the server process.
+     */
+    private void startServers(final List<String> serverNames, final ModelNode domainModel) {
+        final int parallel = START_BLOCKING ? 1 : Math.min(MAX_PARALLEL, serverNames.size());
+        if (parallel <= 1) {
+            for (final String serverName : serverNames) {
+                startServer(serverName, domainModel);
+            }
+            return;
+        }
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("start-servers-threads"), Boolean.FALSE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+        final ExecutorService executor = Executors.newFixedThreadPool(parallel, threadFactory);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(serverNames.size());
+            for (final String serverName : serverNames) {
+                // Reading the domain model may add undefined nodes to it, so every server gets its own copy
+                final ModelNode serverDomainModel = domainModel.clone();
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        startServer(serverName, serverDomainModel);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // startServer handles all exceptions
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void startServer(final String serverName, final ModelNode domainModel) {
+        try {
+            serverInventory.startServer(serverName, domainModel, START_BLOCKING);
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStartServer(e, serverName);
+        }
+    }
+
+    private static int getMaxParallel() {
+        final int defaultValue = Runtime.getRuntime().availableProcessors();
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_PARALLEL_PROPERTY, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final int max = Integer.parseInt(value.trim());
+            if (max > 0) {
+                return max;
+            }
+        } catch (NumberFormatException e) {
+            // fall back to the default
+        }
+        ROOT_LOGGER.invalidSystemPropertyValue(value, MAX_PARALLEL_PROPERTY, defaultValue);
+        return defaultValue;
     }
 }
@@ -824,9 +824,11 @@ class PluggableMBeanServerImpl implements PluggableMBeanServer {
         boolean shouldAuditLog = false;
         try {
             Set<ObjectInstance> result = new HashSet<ObjectInstance>();
+            boolean reservedDomain = false;
             if (delegates.size() > 0) {
                 for (MBeanServerPlugin delegate : delegates) {
                     if (name == null || (name.getDomain() != null && delegate.accepts(name))) {
+                        reservedDomain |= isInReservedDomain(name);
                         //Only include the mbeans if the user is authorized to see the beans in the domain
                         if (!delegate.shouldAuthorize() || authorizeSensitiveOperation(QUERY_MBEANS, true, false)) {
                             result.addAll(delegate.queryMBeans(name, query));
@@ -838,7 +840,8 @@ class PluggableMBeanServerImpl implements PluggableMBeanServer {
                 }
             }
             //Only include the mbeans if the user is authorized to see the beans in the domain
-            if (!rootMBeanServer.shouldAuthorize() || authorizeSensitiveOperation(QUERY_MBEANS, true, false)) {
+            //The root MBeanServer never has any mbeans in a domain reserved by a delegate, so there is no need to ask it
+            if (!reservedDomain && (!rootMBeanServer.shouldAuthorize() || authorizeSensitiveOperation(QUERY_MBEANS, true, false))) {
                 result.addAll(rootMBeanServer.queryMBeans(name, query));
                 shouldAuditLog = true;
             }
@@ -860,9 +863,11 @@ class PluggableMBeanServerImpl implements PluggableMBeanServer {
         boolean shouldAuditLog = false;
         try {
             Set<ObjectName> result = new HashSet<ObjectName>();
+            boolean reservedDomain = false;
             if (delegates.size() > 0) {
                 for (MBeanServerPlugin delegate : delegates) {
                     if (name == null || (name.getDomain() != null && delegate.accepts(name))) {
+                        reservedDomain |= isInReservedDomain(name);
                         //Only include the mbeans if the user is authorized to see the beans in the domain
                         if (!delegate.shouldAuthorize() || authorizeSensitiveOperation(QUERY_NAMES, true, false)) {
                             result.addAll(delegate.queryNames(name, query));
@@ -874,7 +879,8 @@ class PluggableMBeanServerImpl implements PluggableMBeanServer {
                 }
             }
             //Only include the mbeans if the user is authorized to see the beans in the domain
-            if (!rootMBeanServer.shouldAuthorize() || authorizeSensitiveOperation(QUERY_NAMES, true, false)) {
+            //The root MBeanServer never has any mbeans in a domain reserved by a delegate, so there is no need to ask it
+            if (!reservedDomain && (!rootMBeanServer.shouldAuthorize() || authorizeSensitiveOperation(QUERY_NAMES, true, false))) {
                 result.addAll(rootMBeanServer.queryNames(name, query));
                 shouldAuditLog = true;
             }
@@ -889,6 +895,15 @@ class PluggableMBeanServerImpl implements PluggableMBeanServer {
         }
     }
 
+    /**
+     * Gets whether a query for a name accepted by a delegate only concerns the domain reserved by that delegate, in
+     * which case the root MBeanServer cannot have any matching mbeans. See
+     * {@link #checkNotAReservedDomainRegistrationIfObjectNameWasChanged(ObjectName, ObjectInstance, MBeanServerPlugin)}.
+     */
+    private static boolean isInReservedDomain(ObjectName name) {
+        return name != null && !name.isDomainPattern();
+    }
+
     @Override
     public ObjectInstance registerMBean(Object object, ObjectName name) throws InstanceAlreadyExistsException,
             MBeanRegistrationException, NotCompliantMBeanException {
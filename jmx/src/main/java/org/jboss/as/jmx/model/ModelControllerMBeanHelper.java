@@ -89,6 +89,7 @@ public class ModelControllerMBeanHelper {
     private final ConfiguredDomains configuredDomains;
     private final String domain;
     private final ManagementModelIntegration.ManagementModelProvider managementModelProvider;
+    private final ObjectNameCache objectNames;
 
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain,
                                ModelController controller, MutabilityChecker mutabilityChecker,
@@ -100,6 +101,7 @@ public class ModelControllerMBeanHelper {
         this.accessControlUtil = new ResourceAccessControlUtil(controller);
         this.mutabilityChecker = mutabilityChecker;
         this.managementModelProvider = managementModelProvider;
+        this.objectNames = new ObjectNameCache(domain);
     }
 
     int getMBeanCount() {
@@ -108,7 +110,7 @@ public class ModelControllerMBeanHelper {
 
             @Override
             public ObjectName onAddress(PathAddress address) {
-                return isExcludeAddress(address) ? null : ObjectNameAddressUtil.createObjectName(domain, address);
+                return isExcludeAddress(address) ? null : objectNames.getObjectName(address);
             }
 
             public boolean onResource(ObjectName address) {
@@ -123,6 +125,10 @@ public class ModelControllerMBeanHelper {
     }
 
     Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) {
+        if (name != null && !name.isPattern()) {
+            final ObjectName found = findExactName(name);
+            return found == null ? Collections.<ObjectInstance>emptySet() : Collections.singleton(new ObjectInstance(found, CLASS_NAME));
+        }
         return new RootResourceIterator<Set<ObjectInstance>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
                 new ObjectNameMatchResourceAction<Set<ObjectInstance>>(name) {
 
@@ -148,6 +154,10 @@ public class ModelControllerMBeanHelper {
     }
 
     Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) {
+        if (name != null && !name.isPattern()) {
+            final ObjectName found = findExactName(name);
+            return found == null ? Collections.<ObjectName>emptySet() : Collections.singleton(found);
+        }
         return new RootResourceIterator<Set<ObjectName>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
                 new ObjectNameMatchResourceAction<Set<ObjectName>>(name) {
 
@@ -172,6 +182,38 @@ public class ModelControllerMBeanHelper {
         }).iterate();
     }
 
+    /**
+     * Finds the resource with a name that is not a pattern, by following its key properties rather than walking
+     * the whole resource tree. The result is the same as a query walking the tree would find.
+     *
+     * @param name the name
+     * @return the name of the resource, or {@code null} if there is no such resource or it is not visible to the caller
+     */
+    private ObjectName findExactName(final ObjectName name) {
+        final PathAddress address = resolvePathAddress(name);
+        // the root resource is never returned by queries
+        if (address == null || address.size() == 0) {
+            return null;
+        }
+        // a resource is only found by the walk if it and all its parents are accessible
+        for (int i = 0; i <= address.size(); i++) {
+            final PathAddress current = address.subAddress(0, i);
+            if (isExcludeAddress(current) || !accessControlUtil.getResourceAccess(current, false).isAccessibleResource()) {
+                return null;
+            }
+        }
+        final ObjectName found = objectNames.getObjectName(address);
+        return name.equals(found) ? found : null;
+    }
+
+    /**
+     * Called when a resource has been removed.
+     *
+     * @param address the address of the removed resource
+     */
+    void resourceRemoved(final PathAddress address) {
+        objectNames.removed(address);
+    }
 
     PathAddress resolvePathAddress(final ObjectName name) {
         return ObjectNameAddressUtil.resolvePathAddress(domain, getRootResourceAndRegistration().getResource(), name);
@@ -557,12 +599,12 @@ public class ModelControllerMBeanHelper {
 
         @Override
         public ObjectName onAddress(PathAddress address) {
-            if (isExcludeAddress(address)) {
+            if (isExcludeAddress(address) || !couldMatch(address)) {
                 return null;
             }
 
             ObjectName result = null;
-            ObjectName toMatch = ObjectNameAddressUtil.createObjectName(domain, address);
+            ObjectName toMatch = objectNames.getObjectName(address);
             if (baseName == null) {
                 result = toMatch;
             } else if (address.size() == 0) {
@@ -598,5 +640,24 @@ public class ModelControllerMBeanHelper {
             }
             return result;
         }
+
+        /**
+         * Checks the last element of the address against the key properties of the base name, without creating the
+         * address's ObjectName. The parent addresses have already been matched, as their children are not visited
+         * otherwise, so any address failing this check fails the full match in {@link #onAddress(PathAddress)}.
+         */
+        private boolean couldMatch(PathAddress address) {
+            if (baseName == null || address.size() == 0) {
+                return true;
+            }
+            final PathElement element = address.getLastElement();
+            final String key = ObjectNameAddressUtil.toPropertyKey(element.getKey());
+            final String propertyValue = properties.get(key);
+            if (propertyValue == null) {
+                // only a property list pattern allows other properties, and then only once all of its own are present
+                return baseName.isPropertyListPattern() && address.size() > properties.size();
+            }
+            return baseName.isPropertyValuePattern(key) || propertyValue.equals(ObjectNameAddressUtil.toPropertyValue(element.getValue()));
+        }
     }
 }
@@ -90,6 +90,9 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
                 new ModelControllerMBeanHelper(TypeConverters.createExpressionTypeConverters(), configuredDomains,
                         configuredDomains.getExprDomain(), controller, mutabilityChecker, managementModelProvider) : null;
 
+        ResourceRemovedNotificationHandler removedHandler = new ResourceRemovedNotificationHandler();
+        notificationRegistry.registerNotificationHandler(NotificationHandlerRegistration.ANY_ADDRESS, removedHandler, removedHandler);
+
         // JMX notifications for MBean registration/unregistration are emitted by the MBeanServerDelegate and not by the
         // MBeans itself. If we have a reference on the delegate, we add a listener for any WildFly resource address
         // that converts the resource-added and resource-removed notifications to MBeanServerNotification and send them
@@ -407,6 +410,27 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
         }
     }
 
+    /**
+     * Drops the cached ObjectNames of removed resources.
+     */
+    private class ResourceRemovedNotificationHandler implements NotificationHandler, NotificationFilter {
+
+        @Override
+        public void handleNotification(Notification notification) {
+            if (legacyHelper != null) {
+                legacyHelper.resourceRemoved(notification.getSource());
+            }
+            if (exprHelper != null) {
+                exprHelper.resourceRemoved(notification.getSource());
+            }
+        }
+
+        @Override
+        public boolean isNotificationEnabled(Notification notification) {
+            return notification.getType().equals(ModelDescriptionConstants.RESOURCE_REMOVED_NOTIFICATION);
+        }
+    }
+
     private static boolean isResourceAddedOrRemovedNotification(Notification notification) {
         return notification.getType().equals(RESOURCE_ADDED_NOTIFICATION) ||
                 notification.getType().equals(ModelDescriptionConstants.RESOURCE_REMOVED_NOTIFICATION);
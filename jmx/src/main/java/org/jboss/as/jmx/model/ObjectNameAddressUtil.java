@@ -84,6 +84,26 @@ class ObjectNameAddressUtil {
         }
     }
 
+    /**
+     * Gets a path element key as it appears in the key properties of the ObjectName created by
+     * {@link #createObjectName(String, PathAddress)}.
+     */
+    static String toPropertyKey(final String key) {
+        final StringBuilder sb = new StringBuilder();
+        escapeKey(ESCAPED_KEY_CHARACTERS, sb, key);
+        return sb.toString();
+    }
+
+    /**
+     * Gets a path element value as it appears in the key properties of the ObjectName created by
+     * {@link #createObjectName(String, PathAddress)}.
+     */
+    static String toPropertyValue(final String value) {
+        final StringBuilder sb = new StringBuilder();
+        escapeValue(sb, value);
+        return sb.toString();
+    }
+
     /**
      * Converts the ObjectName to a PathAddress.
      *
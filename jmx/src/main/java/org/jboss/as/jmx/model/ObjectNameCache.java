@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+
+/**
+ * Remembers the {@link ObjectName} of each {@link PathAddress}, so that queries walking the resource tree do not
+ * have to build and parse a new name for every resource they visit.
+ * <p/>
+ * The names are kept in a tree that mirrors the resource tree, so the names of a removed resource and its children
+ * can be dropped by detaching a single node. The conversion does not depend on the model, so a remembered name never
+ * becomes wrong. The whole cache is dropped should it grow beyond {@link #MAX_SIZE} nodes, e.g. because resources
+ * were removed without a notification.
+ */
+class ObjectNameCache {
+
+    private static final int MAX_SIZE = 100000;
+
+    private final String domain;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Node root = new Node();
+
+    ObjectNameCache(final String domain) {
+        this.domain = domain;
+    }
+
+    ObjectName getObjectName(final PathAddress address) {
+        Node node = root;
+        for (PathElement element : address) {
+            Node child = node.children.get(element);
+            if (child == null) {
+                if (size.incrementAndGet() > MAX_SIZE) {
+                    clear();
+                }
+                final Node created = new Node();
+                child = node.children.putIfAbsent(element, created);
+                if (child == null) {
+                    child = created;
+                }
+            }
+            node = child;
+        }
+        ObjectName name = node.name;
+        if (name == null) {
+            name = ObjectNameAddressUtil.createObjectName(domain, address);
+            node.name = name;
+        }
+        return name;
+    }
+
+    /**
+     * Drops the names of a removed resource and its children.
+     *
+     * @param address the address of the removed resource
+     */
+    void removed(final PathAddress address) {
+        if (address.size() == 0) {
+            clear();
+            return;
+        }
+        Node node = root;
+        for (PathElement element : address.subAddress(0, address.size() - 1)) {
+            node = node.children.get(element);
+            if (node == null) {
+                return;
+            }
+        }
+        final Node removed = node.children.remove(address.getLastElement());
+        if (removed != null) {
+            size.addAndGet(-removed.count());
+        }
+    }
+
+    private void clear() {
+        root = new Node();
+        size.set(0);
+    }
+
+    private static final class Node {
+        private final ConcurrentMap<PathElement, Node> children = new ConcurrentHashMap<PathElement, Node>();
+        private volatile ObjectName name;
+
+        /**
+         * @return the number of nodes in the subtree of this node, including itself
+         */
+        private int count() {
+            int count = 1;
+            for (Node child : children.values()) {
+                count += child.count();
+            }
+            return count;
+        }
+    }
+}
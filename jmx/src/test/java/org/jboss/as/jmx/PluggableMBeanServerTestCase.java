@@ -21,6 +21,8 @@
  */
 package org.jboss.as.jmx;
 
+import java.util.Set;
+
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.MBeanRegistration;
@@ -105,6 +107,23 @@ public class PluggableMBeanServerTestCase extends AbstractSubsystemTest {
         reservedDomainTest("jboss.as.expr:bean=test-null", NAME);
     }
 
+    @Test
+    public void testQueryNamesByDomain() throws Exception {
+        server.registerMBean(new TestBean(NAME), null);
+        try {
+            Assert.assertTrue(server.queryNames(createName("test.domain:*"), null).contains(NAME));
+            Assert.assertTrue(server.queryNames(null, null).contains(NAME));
+            Assert.assertTrue(server.queryNames(createName("*:bean=test-null"), null).contains(NAME));
+            Set<ObjectName> names = server.queryNames(createName("jboss.as.expr:*"), null);
+            Assert.assertFalse(names.isEmpty());
+            for (ObjectName name : names) {
+                Assert.assertEquals("jboss.as.expr", name.getDomain());
+            }
+        } finally {
+            server.unregisterMBean(NAME);
+        }
+    }
+
     private void reservedDomainTest(String name, ObjectName originalObjectName) throws Exception {
         ObjectName objName = createName(name);
         assertNoMBean(objName);
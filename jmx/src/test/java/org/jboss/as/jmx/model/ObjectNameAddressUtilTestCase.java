@@ -86,6 +86,36 @@ public class ObjectNameAddressUtilTestCase {
         checkObjectName(COMPLEX_KEY_ONE);
     }
 
+    @Test
+    public void testPropertyKeysAndValues() throws Exception {
+        for (PathElement element : new PathElement[] {TOP_ONE, TOP_COMPLEX_VALUE, COMPLEX_KEY_ONE}) {
+            ObjectName name = ObjectNameAddressUtil.createObjectName("jboss.as", PathAddress.pathAddress(element));
+            String key = ObjectNameAddressUtil.toPropertyKey(element.getKey());
+            Assert.assertEquals(name.getKeyProperty(key), ObjectNameAddressUtil.toPropertyValue(element.getValue()));
+        }
+    }
+
+    @Test
+    public void testObjectNameCache() throws Exception {
+        ObjectNameCache cache = new ObjectNameCache("jboss.as");
+        PathAddress top = PathAddress.pathAddress(TOP_ONE);
+        PathAddress bottom = PathAddress.pathAddress(TOP_ONE, BOTTOM_TWO);
+        ObjectName bottomName = cache.getObjectName(bottom);
+        Assert.assertEquals(ObjectNameAddressUtil.createObjectName("jboss.as", bottom), bottomName);
+        Assert.assertSame(bottomName, cache.getObjectName(bottom));
+        ObjectName complexName = cache.getObjectName(PathAddress.pathAddress(TOP_COMPLEX_VALUE));
+
+        cache.removed(top);
+        Assert.assertNotSame(bottomName, cache.getObjectName(bottom));
+        Assert.assertSame(complexName, cache.getObjectName(PathAddress.pathAddress(TOP_COMPLEX_VALUE)));
+
+        // removing a resource whose name was never looked up does not affect the others
+        cache.removed(PathAddress.pathAddress(TOP_ONE, BOTTOM_TWO).append(pathElement("none", "none")));
+        Assert.assertSame(complexName, cache.getObjectName(PathAddress.pathAddress(TOP_COMPLEX_VALUE)));
+        cache.removed(PathAddress.EMPTY_ADDRESS);
+        Assert.assertNotSame(complexName, cache.getObjectName(PathAddress.pathAddress(TOP_COMPLEX_VALUE)));
+    }
+
     private void checkObjectName(PathElement...elements) {
         PathAddress pathAddress = PathAddress.pathAddress(elements);
         ObjectName on = ObjectNameAddressUtil.createObjectName("jboss.as", pathAddress);
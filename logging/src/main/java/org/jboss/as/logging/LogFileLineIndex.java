@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A sparse index of the line offsets of a log file, which allows a range of lines to be read without reading all the
+ * lines before it.
+ * <p/>
+ * The offset of every {@value #INTERVAL}th line is recorded. The index is kept between invocations and only the
+ * content appended since the last invocation is scanned, so paging through a large log file, or tailing it, only
+ * reads the lines that are returned plus at most {@value #INTERVAL} lines. If the file is replaced, e.g. by a
+ * rotating handler, or truncated the index is rebuilt.
+ * <p/>
+ * Lines are counted by their line feeds, so the index can only be used with encodings where a line feed is always
+ * the single byte {@code 0x0A}, see {@link #isSupported(Charset)}.
+ */
+final class LogFileLineIndex {
+
+    /** The number of lines between two recorded offsets */
+    static final int INTERVAL = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_INDEXES = 64;
+    private static final int TAIL_LENGTH = 64;
+
+    private static final ConcurrentMap<String, LogFileLineIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path path;
+
+    // guarded by this
+    private Object fileKey;
+    /** The offset of line {@code n * INTERVAL} is stored at {@code n} */
+    private long[] offsets = new long[16];
+    /** The number of lines terminated by a line feed */
+    private long lineCount;
+    /** The offset following the last line feed */
+    private long indexedLength;
+    /** The last bytes that have been indexed, used to detect the content being replaced */
+    private byte[] indexedTail = new byte[0];
+
+    LogFileLineIndex(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the index for a log file, creating it if required.
+     *
+     * @param file the log file
+     *
+     * @return the index
+     */
+    static LogFileLineIndex forFile(final File file) {
+        final String key = file.getAbsolutePath();
+        LogFileLineIndex index = INDEXES.get(key);
+        if (index == null) {
+            // The rotated files accumulate over time, simply start over rather than tracking their use
+            if (INDEXES.size() >= MAX_INDEXES) {
+                INDEXES.clear();
+            }
+            index = new LogFileLineIndex(file.toPath());
+            final LogFileLineIndex existing = INDEXES.putIfAbsent(key, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether lines encoded with the charset can be found by looking for line feed bytes.
+     *
+     * @param charset the charset of the log file
+     *
+     * @return {@code true} if the index can be used with the charset
+     */
+    static boolean isSupported(final Charset charset) {
+        final byte[] bytes = "\n".getBytes(charset);
+        return bytes.length == 1 && bytes[0] == '\n';
+    }
+
+    /**
+     * Reads lines from the log file.
+     *
+     * @param charset       the charset of the log file
+     * @param tail          {@code true} if the lines should be counted from the end of the file
+     * @param skip          the number of lines to skip, from the start or the end of the file depending on {@code tail}
+     * @param numberOfLines the maximum number of lines to read or {@code -1} to read all the lines
+     *
+     * @return the lines, in the order they appear in the file
+     *
+     * @throws IOException if the file could not be read
+     */
+    List<String> readLines(final Charset charset, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long first;
+            final long count;
+            final long checkpoint;
+            synchronized (this) {
+                final long size = update(channel);
+                if (tail) {
+                    // A last line without a line feed is still a line
+                    final long total = lineCount + (size > indexedLength ? 1 : 0);
+                    final long end = Math.max(0, total - skip);
+                    first = (numberOfLines < 0 ? 0 : Math.max(0, end - numberOfLines));
+                    count = end - first;
+                } else {
+                    first = skip;
+                    count = numberOfLines;
+                }
+                final int n = (int) (Math.min(first, lineCount) / INTERVAL);
+                checkpoint = offsets[n];
+                channel.position(skipLines(channel, checkpoint, first - ((long) n * INTERVAL)));
+            }
+            final List<String> lines = new ArrayList<>(count < 0 ? 16 : (int) Math.min(count, INTERVAL));
+            // The channel is still closed by the try, closing it twice is harmless
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), charset));
+            String line;
+            while ((count < 0 || lines.size() < count) && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * Brings the index up to date with the file.
+     *
+     * @return the size of the file when it was indexed
+     */
+    private long update(final FileChannel channel) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // Not every platform has file keys, the creation time is the closest match
+        final Object key = (attributes.fileKey() == null ? attributes.creationTime() : attributes.fileKey());
+        final long size = channel.size();
+        if (!key.equals(fileKey) || size < indexedLength || !Arrays.equals(indexedTail, readTail(channel, indexedLength))) {
+            fileKey = key;
+            offsets = new long[16];
+            lineCount = 0;
+            indexedLength = 0;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = indexedLength;
+        while (position < size) {
+            buffer.clear();
+            if (size - position < BUFFER_SIZE) {
+                buffer.limit((int) (size - position));
+            }
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    indexedLength = position + i + 1;
+                    if (++lineCount % INTERVAL == 0) {
+                        final int n = (int) (lineCount / INTERVAL);
+                        if (n == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, n * 2);
+                        }
+                        offsets[n] = indexedLength;
+                    }
+                }
+            }
+            position += read;
+        }
+        indexedTail = readTail(channel, indexedLength);
+        return size;
+    }
+
+    /**
+     * Reads the bytes preceding the offset. File keys may be reused once a file has been deleted, so these bytes are
+     * compared as well to make sure the content that has been indexed was not replaced.
+     */
+    private static byte[] readTail(final FileChannel channel, final long offset) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAIL_LENGTH, offset));
+        final long start = offset - buffer.capacity();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) <= 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Finds the offset of the line the number of lines after the offset.
+     */
+    private static long skipLines(final FileChannel channel, final long offset, final long lines) throws IOException {
+        if (lines <= 0) {
+            return offset;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = offset;
+        long remaining = lines;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n' && --remaining == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+            buffer.clear();
+        }
+        return position;
+    }
+}
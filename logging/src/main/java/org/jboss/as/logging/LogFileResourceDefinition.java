@@ -30,6 +30,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -254,31 +256,54 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
+    }
 
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
-            final List<String> lines;
-            if (numberOfLines < 0) {
-                lines = new ArrayList<>();
-            } else {
-                lines = new ArrayList<>(numberOfLines);
+    /**
+     * Reads lines from a log file. When the encoding allows it the lines are found through the {@linkplain
+     * LogFileLineIndex index} of the file, otherwise the file is read from the start, or from the end if {@code tail}
+     * is {@code true}.
+     *
+     * @param file          the log file
+     * @param encoding      the encoding of the file or {@code null} for the default encoding
+     * @param tail          {@code true} if the lines should be counted from the end of the file
+     * @param skip          the number of lines to skip
+     * @param numberOfLines the maximum number of lines to read or {@code -1} to read all the lines
+     *
+     * @return the lines, in the order they appear in the file
+     *
+     * @throws IOException if the file could not be read
+     */
+    static List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final Charset charset;
+        try {
+            charset = (encoding == null ? Charset.defaultCharset() : Charset.forName(encoding));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        if (LogFileLineIndex.isSupported(charset)) {
+            return LogFileLineIndex.forFile(file).readLines(charset, tail, skip, numberOfLines);
+        }
+        final List<String> lines;
+        if (numberOfLines < 0) {
+            lines = new ArrayList<>();
+        } else {
+            lines = new ArrayList<>(numberOfLines);
+        }
+        try (
+                final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))
+        ) {
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lineCount <= skip) continue;
+                if (lines.size() == numberOfLines) break;
+                lines.add(line);
             }
-            try (
-                    final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
-                    final InputStreamReader isr = (encoding == null ? new InputStreamReader(in) : new InputStreamReader(in, encoding));
-                    final BufferedReader reader = new BufferedReader(isr)
-            ) {
-                int lineCount = 0;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (++lineCount <= skip) continue;
-                    if (lines.size() == numberOfLines) break;
-                    lines.add(line);
-                }
-                if (tail) {
-                    Collections.reverse(lines);
-                }
-                return lines;
+            if (tail) {
+                Collections.reverse(lines);
             }
+            return lines;
         }
     }
 
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogFileLineIndexTestCase {
+
+    private static final Charset UTF_8 = StandardCharsets.UTF_8;
+
+    private Path file;
+    private final List<String> written = new ArrayList<>();
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("server", ".log");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadLines() throws Exception {
+        final int total = LogFileLineIndex.INTERVAL * 3 + 17;
+        append(total);
+        final LogFileLineIndex index = new LogFileLineIndex(file);
+
+        Assert.assertEquals(written.subList(0, 10), index.readLines(UTF_8, false, 0, 10));
+        Assert.assertEquals(written.subList(2000, 2050), index.readLines(UTF_8, false, 2000, 50));
+        Assert.assertEquals(written.subList(total - 5, total), index.readLines(UTF_8, false, total - 5, 10));
+        Assert.assertEquals(written, index.readLines(UTF_8, false, 0, -1));
+        Assert.assertTrue(index.readLines(UTF_8, false, total + 100, 10).isEmpty());
+
+        Assert.assertEquals(written.subList(total - 10, total), index.readLines(UTF_8, true, 0, 10));
+        Assert.assertEquals(written.subList(total - 1034, total - 1024), index.readLines(UTF_8, true, 1024, 10));
+        Assert.assertEquals(written.subList(0, 5), index.readLines(UTF_8, true, total - 5, 10));
+        Assert.assertEquals(written.subList(0, total - 3), index.readLines(UTF_8, true, 3, -1));
+        Assert.assertTrue(index.readLines(UTF_8, true, total, 10).isEmpty());
+    }
+
+    @Test
+    public void testAppendedLines() throws Exception {
+        append(LogFileLineIndex.INTERVAL + 1);
+        final LogFileLineIndex index = new LogFileLineIndex(file);
+        Assert.assertEquals(written.subList(written.size() - 2, written.size()), index.readLines(UTF_8, true, 0, 2));
+
+        // A partially written line is still the last line
+        Files.write(file, "partial".getBytes(UTF_8), StandardOpenOption.APPEND);
+        Assert.assertEquals("partial", index.readLines(UTF_8, true, 0, 1).get(0));
+        Files.write(file, " line\n".getBytes(UTF_8), StandardOpenOption.APPEND);
+        written.add("partial line");
+
+        append(LogFileLineIndex.INTERVAL * 2);
+        final int size = written.size();
+        Assert.assertEquals(written.subList(size - 3, size), index.readLines(UTF_8, true, 0, 3));
+        Assert.assertEquals(written.subList(2500, 2510), index.readLines(UTF_8, false, 2500, 10));
+    }
+
+    @Test
+    public void testReplacedFile() throws Exception {
+        append(LogFileLineIndex.INTERVAL * 2);
+        final LogFileLineIndex index = new LogFileLineIndex(file);
+        Assert.assertEquals(written.subList(1500, 1510), index.readLines(UTF_8, false, 1500, 10));
+
+        // Rewrite the file with longer lines, as a rotating handler would start a new file
+        written.clear();
+        Files.write(file, new byte[0]);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8, StandardOpenOption.APPEND)) {
+            for (int i = 0; i < LogFileLineIndex.INTERVAL * 3; i++) {
+                final String line = "rotated line number " + i;
+                writer.write(line);
+                writer.write('\n');
+                written.add(line);
+            }
+        }
+        Assert.assertEquals(written.subList(1500, 1510), index.readLines(UTF_8, false, 1500, 10));
+        Assert.assertEquals(written.subList(written.size() - 10, written.size()), index.readLines(UTF_8, true, 0, 10));
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        Assert.assertTrue(LogFileLineIndex.isSupported(UTF_8));
+        Assert.assertTrue(LogFileLineIndex.isSupported(StandardCharsets.ISO_8859_1));
+        Assert.assertFalse(LogFileLineIndex.isSupported(StandardCharsets.UTF_16));
+    }
+
+    private void append(final int lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8, StandardOpenOption.APPEND)) {
+            for (int i = 0; i < lines; i++) {
+                final String line = (i % 7 == 0 ? "" : "line " + written.size() + " \u00e9t\u00e9");
+                writer.write(line);
+                writer.write('\n');
+                written.add(line);
+            }
+        }
+    }
+}
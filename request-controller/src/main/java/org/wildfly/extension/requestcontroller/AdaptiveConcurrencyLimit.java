@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+/**
+ * Gradient based concurrency limit, which adjusts the maximum number of active requests based on how the
+ * request latency changes.
+ * <p/>
+ * Each sample is the average latency of the requests over a short window. It is compared to a long term
+ * average latency; while the latency stays close to the long term average the limit grows by roughly the square
+ * root of the limit per window, and once requests start queueing inside the server (so latency goes up) the limit
+ * shrinks in proportion to the increase. As the long term average follows the short term latency the limit
+ * adapts to changes in the hardware or the load profile.
+ * <p/>
+ * This class is not thread safe, samples must only be supplied by a single thread.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    /**
+     * The limit to start with if no maximum is configured
+     */
+    static final int DEFAULT_INITIAL_LIMIT = 100;
+
+    private static final int MIN_LIMIT = 4;
+
+    /**
+     * How much the short term latency can exceed the long term latency before the limit is reduced
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * The weight of a new limit compared to the old one, to avoid overreacting to a single sample
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * The number of samples the long term latency is averaged over
+     */
+    private static final int LONG_WINDOW = 60;
+
+    private volatile int maxLimit;
+    private volatile double limit;
+    private volatile double lastRtt;
+    private double longRtt;
+    private int samples;
+
+    /**
+     * @param maxLimit the upper bound of the limit, or a value less than one for no upper bound
+     */
+    AdaptiveConcurrencyLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit > 0 ? maxLimit : DEFAULT_INITIAL_LIMIT;
+    }
+
+    /**
+     * Updates the limit with a new latency sample.
+     *
+     * @param rtt the average latency of the requests in the sample window, in nanoseconds
+     * @param inflight the average number of active requests in the sample window
+     * @return the new limit
+     */
+    int update(final double rtt, final double inflight) {
+        if (rtt <= 0) {
+            return getLimit();
+        }
+        lastRtt = rtt;
+        if (samples < LONG_WINDOW) {
+            // plain average until the window is full
+            samples++;
+            longRtt += (rtt - longRtt) / samples;
+        } else {
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+        }
+        // if the latency has dropped a lot then the load has changed, and waiting for the long term
+        // average to catch up would hold the limit back for a long time
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+        double current = limit;
+        if (inflight < current / 2) {
+            // the server is not using the limit, so the samples say nothing about whether it is too low
+            return getLimit();
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / rtt));
+        double newLimit = current * gradient + Math.sqrt(current);
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        newLimit = Math.max(MIN_LIMIT, newLimit);
+        final int max = maxLimit;
+        if (max > 0) {
+            newLimit = Math.min(max, newLimit);
+        }
+        limit = newLimit;
+        return getLimit();
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the latency of the last sample in nanoseconds, or zero if there have been no samples
+     */
+    double getLastRtt() {
+        return lastRtt;
+    }
+
+    /**
+     * Sets the upper bound of the limit.
+     *
+     * @param maxLimit the upper bound, or a value less than one for no upper bound
+     * @return the new limit
+     */
+    int setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+        if (maxLimit > 0 && limit > maxLimit) {
+            limit = maxLimit;
+        }
+        return getLimit();
+    }
+}
@@ -31,4 +31,12 @@ interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
+    String ADAPTIVE_LIMIT = "adaptive-limit";
+    String CURRENT_LIMIT = "current-limit";
+    String MEASURED_RTT = "measured-rtt";
+    String REJECTED_REQUESTS = "rejected-requests";
+    String ENTRY_POINT = "entry-point";
+    String WEIGHT = "weight";
+    String QUEUED_REQUESTS = "queued-requests";
+    String TOTAL_QUEUE_WAIT_TIME = "total-queue-wait-time";
 }
@@ -22,6 +22,7 @@
 package org.wildfly.extension.requestcontroller;
 
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.suspend.ServerActivityCallback;
@@ -43,6 +44,8 @@ import java.util.concurrent.Executor;
 public class ControlPoint {
 
     private static final AtomicIntegerFieldUpdater<ControlPoint> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "activeRequestCount");
+    private static final AtomicIntegerFieldUpdater<ControlPoint> queuedRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "queuedRequestCount");
+    private static final AtomicLongFieldUpdater<ControlPoint> totalQueueWaitTimeUpdater = AtomicLongFieldUpdater.newUpdater(ControlPoint.class, "totalQueueWaitTime");
     private static final AtomicReferenceFieldUpdater<ControlPoint, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(ControlPoint.class, ServerActivityCallback.class, "listener");
 
     private final RequestController controller;
@@ -50,12 +53,34 @@ public class ControlPoint {
     private final String entryPoint;
     private final boolean trackIndividualControlPoints;
 
+    /**
+     * The maximum number of requests that can be active via this control point, or -1 if only the global limit applies
+     */
+    private final int maxRequests;
+
+    /**
+     * The share of the global capacity this control point gets relative to the others when requests are queued
+     */
+    private final int weight;
+
     /**
      * The number of active requests that are using this entry point
      */
     @SuppressWarnings("unused")
     private volatile int activeRequestCount = 0;
 
+    /**
+     * The number of tasks that are queued waiting to run
+     */
+    @SuppressWarnings("unused")
+    private volatile int queuedRequestCount = 0;
+
+    /**
+     * The total time, in nanoseconds, that tasks that have been run spent in the queue
+     */
+    @SuppressWarnings("unused")
+    private volatile long totalQueueWaitTime = 0;
+
     /**
      * If this entry point is paused
      */
@@ -71,10 +96,17 @@ public class ControlPoint {
     private int referenceCount = 0;
 
     ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints) {
+        this(controller, deployment, entryPoint, trackIndividualControlPoints, -1, 1);
+    }
+
+    ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints, int maxRequests, int weight) {
         this.controller = controller;
         this.deployment = deployment;
         this.entryPoint = entryPoint;
-        this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.maxRequests = maxRequests;
+        this.weight = weight;
+        // requests always need to be counted to enforce a limit
+        this.trackIndividualControlPoints = trackIndividualControlPoints || maxRequests > 0;
     }
 
     public String getEntryPoint() {
@@ -128,8 +160,8 @@ public class ControlPoint {
         if (paused) {
             return RunResult.REJECTED;
         }
-        if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+        if(!increaseRequestCount(false)) {
+            return RunResult.REJECTED;
         }
         RunResult runResult = controller.beginRequest(false);
         if (runResult == RunResult.REJECTED) {
@@ -150,19 +182,69 @@ public class ControlPoint {
      * must be called once the task is complete, usually via a try/finally construct.
      */
     public RunResult forceBeginRequest() throws Exception {
-        if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+        increaseRequestCount(true);
+        RunResult runResult = controller.beginRequest(true);
+        if (runResult == RunResult.REJECTED) {
+            decreaseRequestCount();
         }
-        return controller.beginRequest(true);
+        return runResult;
     }
 
     /**
-     * Called when a queued task is executed.
+     * Called when a queued task is about to be run.
+     *
+     * @param force {@code true} if the task must run even if this control point is at its request limit
+     * @return {@code true} if the task can run, in which case {@link #requestComplete()} must be called once it is
+     *         done, or {@link #queuedRequestAbandoned()} if it is not going to be run after all
      */
-    void beginExistingRequest() {
-        if(trackIndividualControlPoints) {
+    boolean beginQueuedRequest(boolean force) {
+        return increaseRequestCount(force);
+    }
+
+    /**
+     * Called if a task for which {@link #beginQueuedRequest(boolean)} returned {@code true} is not going to run.
+     */
+    void queuedRequestAbandoned() {
+        decreaseRequestCount();
+    }
+
+    /**
+     * @return {@code true} if a request could currently be started without exceeding this control point's limit
+     */
+    boolean hasCapacity() {
+        return maxRequests <= 0 || activeRequestCountUpdater.get(this) < maxRequests;
+    }
+
+    void requestQueued() {
+        queuedRequestCountUpdater.incrementAndGet(this);
+    }
+
+    /**
+     * Called when a task leaves the queue, either to run or because it timed out
+     *
+     * @param waitTime the time the task spent queued, in nanoseconds
+     */
+    void requestDequeued(long waitTime) {
+        queuedRequestCountUpdater.decrementAndGet(this);
+        totalQueueWaitTimeUpdater.addAndGet(this, waitTime);
+    }
+
+    private boolean increaseRequestCount(boolean force) {
+        if (!trackIndividualControlPoints) {
+            return true;
+        }
+        if (maxRequests <= 0 || force) {
             activeRequestCountUpdater.incrementAndGet(this);
+            return true;
         }
+        int active;
+        do {
+            active = activeRequestCountUpdater.get(this);
+            if (active >= maxRequests) {
+                return false;
+            }
+        } while (!activeRequestCountUpdater.compareAndSet(this, active, active + 1));
+        return true;
     }
 
     /**
@@ -235,6 +317,34 @@ public class ControlPoint {
         return activeRequestCountUpdater.get(this);
     }
 
+    /**
+     * @return the maximum number of requests that can be active via this control point, or -1 if there is no limit
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * @return the relative share of the server's capacity given to this control point when requests are queued
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the number of tasks that are queued waiting to run
+     */
+    public int getQueuedRequestCount() {
+        return queuedRequestCountUpdater.get(this);
+    }
+
+    /**
+     * @return the total time, in milliseconds, that tasks spent queued before they were run or timed out
+     */
+    public long getTotalQueueWaitTime() {
+        return totalQueueWaitTimeUpdater.get(this) / 1000000;
+    }
+
     synchronized int increaseReferenceCount() {
         return ++referenceCount;
     }
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Limits and weights for all control points with a given entry point name, e.g. all the
+ * servlet requests, regardless of the deployment.
+ */
+class EntryPointResourceDefinition extends PersistentResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement(Constants.ENTRY_POINT);
+
+    static final SimpleAttributeDefinition MAX_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUESTS, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(-1))
+            .build();
+
+    static final SimpleAttributeDefinition WEIGHT = SimpleAttributeDefinitionBuilder.create(Constants.WEIGHT, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(1))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    static final SimpleAttributeDefinition QUEUED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.QUEUED_REQUESTS, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition TOTAL_QUEUE_WAIT_TIME = SimpleAttributeDefinitionBuilder.create(Constants.TOTAL_QUEUE_WAIT_TIME, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final EntryPointResourceDefinition INSTANCE = new EntryPointResourceDefinition(true);
+
+    private final boolean registerRuntimeOnly;
+
+    EntryPointResourceDefinition(boolean registerRuntimeOnly) {
+        super(PATH,
+                RequestControllerExtension.getResolver(Constants.ENTRY_POINT),
+                new EntryPointAdd(),
+                ReloadRequiredRemoveStepHandler.INSTANCE);
+        this.registerRuntimeOnly = registerRuntimeOnly;
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        if(registerRuntimeOnly) {
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, WEIGHT, QUEUED_REQUESTS, TOTAL_QUEUE_WAIT_TIME});
+        } else {
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, WEIGHT});
+        }
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, new ReloadRequiredWriteAttributeHandler(MAX_REQUESTS));
+        resourceRegistration.registerReadWriteAttribute(WEIGHT, null, new ReloadRequiredWriteAttributeHandler(WEIGHT));
+        if(registerRuntimeOnly) {
+            resourceRegistration.registerMetric(QUEUED_REQUESTS, new EntryPointMetricsReadHandler());
+            resourceRegistration.registerMetric(TOTAL_QUEUE_WAIT_TIME, new EntryPointMetricsReadHandler());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of tasks waiting for capacity, which shares the capacity out between the {@link ControlPoint}s in
+ * proportion to their weights.
+ * <p/>
+ * Each control point has its own FIFO queue. Every task is tagged with a virtual finish time when it is added,
+ * which is later for control points with a lower weight and for control points that already have many tasks
+ * queued. {@link #poll()} returns the task with the earliest finish time out of all the control points that are
+ * below their own request limit, so a control point that floods the queue only delays its own tasks.
+ */
+final class FairTaskQueue<T extends FairTaskQueue.Entry> {
+
+    /**
+     * The virtual time one task takes with a weight of one
+     */
+    private static final long COST = 1 << 16;
+
+    private final Map<ControlPoint, ArrayDeque<T>> queues = new IdentityHashMap<>();
+    private long virtualTime;
+
+    /**
+     * The number of queued tasks. It is only changed while holding the lock, but read without it, so that completing
+     * requests do not contend on the lock while nothing is queued.
+     */
+    private volatile int size;
+
+    synchronized void add(T task) {
+        final Entry entry = task;
+        final ControlPoint controlPoint = entry.controlPoint;
+        ArrayDeque<T> queue = queues.get(controlPoint);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(controlPoint, queue);
+        }
+        final Entry last = queue.peekLast();
+        entry.start = last == null ? virtualTime : Math.max(virtualTime, last.finish);
+        entry.finish = entry.start + COST / Math.max(1, controlPoint.getWeight());
+        queue.add(task);
+        size++;
+    }
+
+    /**
+     * Removes the next task to run, if there is one whose control point is below its request limit. The request is
+     * begun on the control point of the returned task, see {@link ControlPoint#beginQueuedRequest(boolean)}.
+     *
+     * @return the task, or {@code null}
+     */
+    T poll() {
+        if (size == 0) {
+            return null;
+        }
+        synchronized (this) {
+            return pollQueued();
+        }
+    }
+
+    private T pollQueued() {
+        List<ControlPoint> full = null;
+        for (;;) {
+            ArrayDeque<T> best = null;
+            Entry bestHead = null;
+            for (Map.Entry<ControlPoint, ArrayDeque<T>> entry : queues.entrySet()) {
+                Entry head = entry.getValue().peek();
+                if (head != null && (bestHead == null || head.finish < bestHead.finish)
+                        && (full == null || !full.contains(entry.getKey())) && entry.getKey().hasCapacity()) {
+                    best = entry.getValue();
+                    bestHead = head;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (bestHead.controlPoint.beginQueuedRequest(false)) {
+                T task = best.poll();
+                size--;
+                virtualTime = Math.max(virtualTime, bestHead.start);
+                if (best.isEmpty()) {
+                    queues.remove(bestHead.controlPoint);
+                }
+                return task;
+            }
+            // the control point reached its limit since we checked
+            if (full == null) {
+                full = new ArrayList<>();
+            }
+            full.add(bestHead.controlPoint);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the queued tasks
+     *
+     * @return the tasks
+     */
+    synchronized List<T> clear() {
+        List<T> result = new ArrayList<>(size);
+        for (Iterator<ArrayDeque<T>> it = queues.values().iterator(); it.hasNext(); ) {
+            result.addAll(it.next());
+            it.remove();
+        }
+        size = 0;
+        return result;
+    }
+
+    /**
+     * A queued task
+     */
+    abstract static class Entry {
+        final ControlPoint controlPoint;
+        long start;
+        long finish;
+
+        Entry(ControlPoint controlPoint) {
+            this.controlPoint = controlPoint;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+
+/**
+ * A timer for the timeouts of queued tasks, based on a hashed timing wheel.
+ * <p/>
+ * Time is divided into ticks, and the wheel has one bucket per tick. A timeout is placed in the bucket of the tick
+ * in which it expires, together with the number of full rotations of the wheel that must happen first. Scheduling
+ * and cancelling are constant time operations that only lock a single bucket, and a cancelled timeout is unlinked
+ * immediately rather than being left for the timer thread to discard.
+ * <p/>
+ * Timeouts may fire up to one tick late, but never early.
+ */
+final class HashedWheelTimer {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final String threadName;
+
+    /** The next tick to be processed. Only modified by the timer thread, while holding the lock of that tick's bucket */
+    private volatile long tick;
+    private volatile long startTime;
+    private volatile Thread thread;
+
+    HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.threadName = threadName;
+    }
+
+    synchronized void start() {
+        if (thread == null) {
+            startTime = System.nanoTime();
+            tick = 0;
+            Thread thread = new Thread(new Worker(), threadName);
+            thread.setDaemon(true);
+            this.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the timer. Any pending timeouts are discarded without being run.
+     */
+    synchronized void stop() {
+        Thread thread = this.thread;
+        if (thread != null) {
+            this.thread = null;
+            thread.interrupt();
+            for (Bucket bucket : wheel) {
+                synchronized (bucket) {
+                    Timeout timeout = bucket.head;
+                    while (timeout != null) {
+                        Timeout next = timeout.next;
+                        timeout.state.compareAndSet(Timeout.PENDING, Timeout.CANCELLED);
+                        timeout.bucket = null;
+                        timeout.prev = timeout.next = null;
+                        timeout = next;
+                    }
+                    bucket.head = bucket.tail = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules a task to be run after the given delay.
+     *
+     * @param task the task to run, on the timer thread
+     * @param delay the delay, in milliseconds
+     * @return the timeout, which can be used to cancel the task
+     */
+    Timeout schedule(Runnable task, long delay) {
+        final Timeout timeout = new Timeout(task);
+        // the tick whose processing happens at or after the deadline
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) - startTime;
+        final long deadlineTick = Math.max(0, (deadline + tickNanos - 1) / tickNanos - 1);
+        for (;;) {
+            final long current = tick;
+            final long target = Math.max(deadlineTick, current);
+            final Bucket bucket = wheel[(int) (target & mask)];
+            synchronized (bucket) {
+                // the tick is only advanced while the bucket being processed is locked, so if it has not moved the
+                // number of times this bucket will be processed before the target tick is known
+                if (tick == current) {
+                    timeout.rounds = (target - current) / wheel.length;
+                    bucket.add(timeout);
+                    return timeout;
+                }
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            final List<Timeout> expired = new ArrayList<>();
+            while (thread == Thread.currentThread()) {
+                final long current = tick;
+                long sleep = startTime + (current + 1) * tickNanos - System.nanoTime();
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        // stop() has been called
+                        continue;
+                    }
+                }
+                final Bucket bucket = wheel[(int) (current & mask)];
+                synchronized (bucket) {
+                    Timeout timeout = bucket.head;
+                    while (timeout != null) {
+                        Timeout next = timeout.next;
+                        if (timeout.rounds <= 0) {
+                            bucket.remove(timeout);
+                            expired.add(timeout);
+                        } else {
+                            timeout.rounds--;
+                        }
+                        timeout = next;
+                    }
+                    tick = current + 1;
+                }
+                for (Timeout timeout : expired) {
+                    timeout.expire();
+                }
+                expired.clear();
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts. All access must be synchronized on the bucket.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // guarded by the lock of the bucket the timeout is in
+        private volatile Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private long rounds;
+
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timeout, removing it from the timer.
+         *
+         * @return {@code true} if the timeout was cancelled before it expired
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            Bucket bucket = this.bucket;
+            if (bucket != null) {
+                synchronized (bucket) {
+                    // the timer thread may have removed us in the meantime
+                    if (this.bucket == bucket) {
+                        bucket.remove(this);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    RequestControllerLogger.ROOT_LOGGER.failedToRunTimeoutTask(task, t);
+                }
+            }
+        }
+    }
+}
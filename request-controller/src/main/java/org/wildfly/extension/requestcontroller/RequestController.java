@@ -34,16 +34,14 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
 
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -61,17 +59,22 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("server", "global-request-controller");
 
-    private static final AtomicIntegerFieldUpdater<RequestController> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestController.class, "activeRequestCount");
     private static final AtomicReferenceFieldUpdater<RequestController, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(RequestController.class, ServerActivityCallback.class, "listener");
 
-    private volatile int maxRequestCount = -1;
-
-    private volatile int activeRequestCount = 0;
+    /**
+     * Tracks the active requests and enforces the max request count
+     */
+    private final StripedRequestCounter requestCounter = new StripedRequestCounter();
 
     private volatile boolean paused = false;
 
     private final Map<ControlPointIdentifier, ControlPoint> entryPoints = new HashMap<>();
 
+    /**
+     * Per entry point limits and weights, keyed by entry point name
+     */
+    private final Map<String, EntryPointConfiguration> entryPointConfigurations = new HashMap<>();
+
     private final InjectedValue<SuspendController> shutdownControllerInjectedValue = new InjectedValue<>();
 
     @SuppressWarnings("unused")
@@ -79,6 +82,20 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private final boolean trackIndividualControlPoints;
 
+    /**
+     * The adaptive limit, or null if the max request count is static
+     */
+    private volatile AdaptiveConcurrencyLimit adaptiveLimit;
+
+    private volatile LimitSampler limitSampler;
+
+    /**
+     * The configured max request count
+     */
+    private volatile int maxRequestCount = -1;
+
+    private boolean started;
+
     public RequestController(boolean trackIndividualControlPoints) {
         this.trackIndividualControlPoints = trackIndividualControlPoints;
     }
@@ -88,9 +105,25 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
+    /**
+     * The interval in milliseconds at which the active request count is sampled when the limit is adaptive
+     */
+    private static final long LIMIT_SAMPLE_INTERVAL = 10;
 
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    /**
+     * The number of samples per window, after which the limit is adjusted
+     */
+    private static final int LIMIT_SAMPLES_PER_WINDOW = 100;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("request-controller-timeout", 10, TimeUnit.MILLISECONDS, 512);
+
+    private final FairTaskQueue<QueuedTask> taskQueue = new FairTaskQueue<>();
+
+    /**
+     * Tasks that must be run even if the container is suspended. These are kept separate from
+     * {@link #taskQueue} so they can be found without searching the queue while suspended.
+     */
+    private final Queue<QueuedTask> forceRunQueue = new ConcurrentLinkedQueue<>();
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -104,7 +137,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
 
-        if (activeRequestCountUpdater.get(this) == 0) {
+        if (requestCounter.isIdle()) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -121,8 +154,10 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            runQueuedTask(false);
+        while (hasQueuedTasks()) {
+            if (!runQueuedTask(false)) {
+                break;
+            }
         }
     }
 
@@ -202,23 +237,25 @@ public class RequestController implements Service<RequestController>, ServerActi
     public synchronized RequestControllerState getState() {
         final List<RequestControllerState.EntryPointState> eps = new ArrayList<>();
         for (ControlPoint controlPoint : entryPoints.values()) {
-            eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
+            eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount(),
+                    controlPoint.getQueuedRequestCount(), controlPoint.getTotalQueueWaitTime()));
         }
-        return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
+        return new RequestControllerState(paused, requestCounter.getActiveCount(), requestCounter.getMaxRequestCount(), eps);
     }
 
     RunResult beginRequest(boolean force) {
-        int maxRequests = maxRequestCount;
-        int active = activeRequestCountUpdater.get(this);
-        boolean success = false;
-        while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
-            if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
-                success = true;
-                break;
-            }
-            active = activeRequestCountUpdater.get(this);
+        return beginRequest(force, false);
+    }
+
+    /**
+     * @param queued {@code true} if this is to run a queued task, in which case the request is not rejected
+     *               as such, but stays queued
+     */
+    private RunResult beginRequest(boolean force, boolean queued) {
+        if (paused && !force) {
+            return RunResult.REJECTED;
         }
-        if (success) {
+        if (requestCounter.tryAcquire()) {
             //re-check the paused state
             //this is necessary because there is a race between checking paused and updating active requests
             //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
@@ -229,6 +266,9 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
             return RunResult.RUN;
         } else {
+            if (!queued) {
+                requestCounter.recordRejection();
+            }
             return RunResult.REJECTED;
         }
     }
@@ -239,9 +279,9 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private void decrementRequestCount() {
 
-        int result = activeRequestCountUpdater.decrementAndGet(this);
+        requestCounter.release();
         if (paused) {
-            if (paused && result == 0) {
+            if (requestCounter.isIdle()) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
                 if (listener != null) {
                     if (listenerUpdater.compareAndSet(this, listener, null)) {
@@ -267,7 +307,12 @@ public class RequestController implements Service<RequestController>, ServerActi
         ControlPointIdentifier id = new ControlPointIdentifier(deploymentName, entryPointName);
         ControlPoint ep = entryPoints.get(id);
         if (ep == null) {
-            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            EntryPointConfiguration config = entryPointConfigurations.get(entryPointName);
+            if (config == null) {
+                ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            } else {
+                ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints, config.maxRequests, config.weight);
+            }
             entryPoints.put(id, ep);
         }
         ep.increaseReferenceCount();
@@ -286,6 +331,35 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
+    /**
+     * Sets the limit and weight for all control points with the given entry point name. This only affects
+     * control points that are created after this call.
+     *
+     * @param entryPointName The entry point name
+     * @param maxRequests The maximum number of requests that can be active at a time through each control point,
+     *                    or -1 if only the global limit applies
+     * @param weight The share of the capacity the control points get relative to other control points when requests are queued
+     */
+    public synchronized void setEntryPointConfiguration(final String entryPointName, final int maxRequests, final int weight) {
+        entryPointConfigurations.put(entryPointName, new EntryPointConfiguration(maxRequests, weight));
+    }
+
+    /**
+     * Gets the control points that currently exist for an entry point name
+     *
+     * @param entryPointName The entry point name
+     * @return The control points
+     */
+    public synchronized List<ControlPoint> getControlPoints(final String entryPointName) {
+        final List<ControlPoint> eps = new ArrayList<>();
+        for (ControlPoint ep : entryPoints.values()) {
+            if (ep.getEntryPoint().equals(entryPointName)) {
+                eps.add(ep);
+            }
+        }
+        return eps;
+    }
+
     /**
      * @return The maximum number of requests that can be active at a time
      */
@@ -294,22 +368,102 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     /**
-     * Sets the maximum number of requests that can be active at a time.
+     * Sets the maximum number of requests that can be active at a time. If the limit is adaptive this is the
+     * upper bound of the limit.
      * <p/>
      * If this is higher that the number of currently running requests the no new requests
      * will be able to run until the number of active requests has dropped below this level.
      *
      * @param maxRequestCount The max request count
      */
-    public void setMaxRequestCount(int maxRequestCount) {
+    public synchronized void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        AdaptiveConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit != null) {
+            applyLimit(adaptiveLimit.setMaxLimit(maxRequestCount));
+        } else {
+            applyLimit(maxRequestCount);
+        }
+    }
+
+    /**
+     * Enables or disables the adaptive limit. If it is enabled the effective limit is adjusted automatically based on
+     * the request latency, and the max request count is only used as an upper bound.
+     *
+     * @param adaptive {@code true} to adjust the limit automatically
+     */
+    public synchronized void setAdaptiveLimit(boolean adaptive) {
+        if (adaptive == (adaptiveLimit != null)) {
+            return;
+        }
+        LimitSampler sampler = this.limitSampler;
+        if (sampler != null) {
+            sampler.cancel();
+            limitSampler = null;
+        }
+        if (adaptive) {
+            AdaptiveConcurrencyLimit adaptiveLimit = new AdaptiveConcurrencyLimit(maxRequestCount);
+            this.adaptiveLimit = adaptiveLimit;
+            applyLimit(adaptiveLimit.getLimit());
+            if (started) {
+                startSampler(adaptiveLimit);
+            }
+        } else {
+            adaptiveLimit = null;
+            applyLimit(maxRequestCount);
+        }
+    }
+
+    /**
+     * @return {@code true} if the limit is adjusted automatically
+     */
+    public boolean isAdaptiveLimit() {
+        return adaptiveLimit != null;
+    }
+
+    /**
+     * @return The limit that is currently being enforced, or -1 if there is no limit
+     */
+    public int getCurrentLimit() {
+        return requestCounter.getMaxRequestCount();
+    }
+
+    /**
+     * @return The average request latency over the last sample window in milliseconds, or -1 if the limit is not adaptive
+     */
+    public double getMeasuredRtt() {
+        AdaptiveConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit == null) {
+            return -1;
+        }
+        return adaptiveLimit.getLastRtt() / 1000000;
+    }
+
+    /**
+     * @return The number of requests that have been rejected because the limit had been reached
+     */
+    public long getRejectedRequestCount() {
+        return requestCounter.getRejectedCount();
+    }
+
+    private void applyLimit(int limit) {
+        if (limit == requestCounter.getMaxRequestCount()) {
+            return;
+        }
+        requestCounter.setMaxRequestCount(limit);
+        while (hasQueuedTasks()) {
             if(!runQueuedTask(false)) {
                 break;
             }
         }
     }
 
+    private void startSampler(AdaptiveConcurrencyLimit adaptiveLimit) {
+        LimitSampler sampler = new LimitSampler(adaptiveLimit);
+        limitSampler = sampler;
+        sampler.schedule();
+    }
+
     /**
      * @return <code>true</code> If the server is currently pause
      */
@@ -318,21 +472,32 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     @Override
-    public void start(StartContext startContext) throws StartException {
+    public synchronized void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        timer.start();
+        started = true;
+        AdaptiveConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+        if (adaptiveLimit != null) {
+            startSampler(adaptiveLimit);
+        }
     }
 
     @Override
-    public void stop(StopContext stopContext) {
+    public synchronized void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
-        timer = null;
-        while (!taskQueue.isEmpty()) {
-            QueuedTask t = taskQueue.poll();
-            if(t != null) {
-                t.run();
-            }
+        started = false;
+        LimitSampler sampler = this.limitSampler;
+        if (sampler != null) {
+            sampler.cancel();
+            limitSampler = null;
+        }
+        timer.stop();
+        for (QueuedTask t : taskQueue.clear()) {
+            t.run();
+        }
+        QueuedTask t;
+        while ((t = forceRunQueue.poll()) != null) {
+            t.run();
         }
     }
 
@@ -346,7 +511,7 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCount;
+        return requestCounter.getActiveCount();
     }
 
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
@@ -357,15 +522,24 @@ public class RequestController implements Service<RequestController>, ServerActi
             }
         }
         QueuedTask queuedTask = new QueuedTask(taskExecutor, task, timeoutTask, controlPoint, forceRun);
-        taskQueue.add(queuedTask);
+        controlPoint.requestQueued();
+        if(forceRun) {
+            forceRunQueue.add(queuedTask);
+        } else {
+            taskQueue.add(queuedTask);
+        }
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                queuedTask.setTimeout(timer.schedule(queuedTask, timeout));
             }
         }
     }
 
+    private boolean hasQueuedTasks() {
+        return !forceRunQueue.isEmpty() || (!paused && !taskQueue.isEmpty());
+    }
+
     /**
      * Runs a queued task, if the queue is not already empty.
      *
@@ -374,45 +548,39 @@ public class RequestController implements Service<RequestController>, ServerActi
      * @param hasPermit If the caller has already called {@link #beginRequest(boolean force)}
      */
     private boolean runQueuedTask(boolean hasPermit) {
-        QueuedTask task = null;
         if(!hasPermit) {
-            if(!paused) {
-                if (beginRequest(false) == RunResult.REJECTED) {
-                    return false;
-                }
-                task = taskQueue.poll();
-            } else {
-                //the container is suspended, but we still need to run any force queued tasks
-                List<QueuedTask> storage = new ArrayList<>();
-                while (task == null && !taskQueue.isEmpty()) {
-                    QueuedTask tmp = taskQueue.poll();
-                    if(tmp.forceRun) {
-                        task = tmp;
-                    } else {
-                        storage.add(tmp);
-                    }
-                }
-                //this screws the order somewhat, but the container is suspending anyway, and the order
-                //was never guarenteed. if we push them back onto the front we will need to just go through them again
-                taskQueue.addAll(storage);
-                if(task == null) {
-                    return false;
-                }
-                //after all that we are at the max request limit anyway
-                if (beginRequest(true) == RunResult.REJECTED) {
-                    return false;
-                }
+            if(!hasQueuedTasks()) {
+                return false;
+            }
+            //if the container is suspended we still need to run any force queued tasks
+            if (beginRequest(paused, true) == RunResult.REJECTED) {
+                return false;
             }
         }
-        if(task != null) {
-            if(!task.runRequest()) {
-                decrementRequestCount();
+        QueuedTask task = pollQueuedTask();
+        while (task != null) {
+            if(task.runRequest()) {
+                return true;
             }
-            return true;
-        } else {
-            decrementRequestCount();
-            return false;
+            //the task has timed out, try the next one
+            task.controlPoint.queuedRequestAbandoned();
+            task = pollQueuedTask();
         }
+        decrementRequestCount();
+        return false;
+    }
+
+    /**
+     * Removes the next task that can be run from the queues. The request has already been begun on the task's control point.
+     */
+    private QueuedTask pollQueuedTask() {
+        QueuedTask task = forceRunQueue.poll();
+        if(task != null) {
+            task.controlPoint.beginQueuedRequest(true);
+        } else if(!paused) {
+            task = taskQueue.poll();
+        }
+        return task;
     }
 
     private static final class ControlPointIdentifier {
@@ -450,30 +618,106 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    /**
+     * Periodically samples the number of active requests, and once per window works out the average latency
+     * from the average number of active requests and the number of requests completed (Little's law). This
+     * gives the latency without the cost of timing each request.
+     */
+    private final class LimitSampler implements Runnable {
+
+        private final AdaptiveConcurrencyLimit adaptiveLimit;
+        private volatile boolean cancelled;
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private long windowStart = System.nanoTime();
+        private long completedAtWindowStart = requestCounter.getCompletedCount();
+        private long activeSum;
+        private int samples;
+
+        private LimitSampler(AdaptiveConcurrencyLimit adaptiveLimit) {
+            this.adaptiveLimit = adaptiveLimit;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            activeSum += requestCounter.getActiveCount();
+            if (++samples == LIMIT_SAMPLES_PER_WINDOW) {
+                final long now = System.nanoTime();
+                final long completed = requestCounter.getCompletedCount();
+                final long completedInWindow = completed - completedAtWindowStart;
+                final double inflight = (double) activeSum / samples;
+                if (completedInWindow > 0 && !paused) {
+                    final double rtt = inflight * (now - windowStart) / completedInWindow;
+                    final int limit = adaptiveLimit.update(rtt, inflight);
+                    synchronized (RequestController.this) {
+                        if (!cancelled) {
+                            applyLimit(limit);
+                        }
+                    }
+                }
+                windowStart = now;
+                completedAtWindowStart = completed;
+                activeSum = 0;
+                samples = 0;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!cancelled) {
+                timeout = timer.schedule(this, LIMIT_SAMPLE_INTERVAL);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            HashedWheelTimer.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    private static final class EntryPointConfiguration {
+        private final int maxRequests;
+        private final int weight;
+
+        private EntryPointConfiguration(int maxRequests, int weight) {
+            this.maxRequests = maxRequests;
+            this.weight = weight;
+        }
+    }
+
+    private static final class QueuedTask extends FairTaskQueue.Entry implements Runnable {
 
         private final Executor executor;
         private final Runnable task;
         private final Runnable cancelTask;
-        private final ControlPoint controlPoint;
         private final boolean forceRun;
+        private final long queuedTime = System.nanoTime();
 
         //0 == queued
         //1 == run
         //2 == cancelled
         private final AtomicInteger state = new AtomicInteger(0);
 
+        private volatile HashedWheelTimer.Timeout timeout;
+
         private QueuedTask(Executor executor, Runnable task, Runnable cancelTask, ControlPoint controlPoint, boolean forceRun) {
+            super(controlPoint);
             this.executor = executor;
             this.task = task;
             this.cancelTask = cancelTask;
-            this.controlPoint = controlPoint;
             this.forceRun = forceRun;
         }
 
         @Override
         public void run() {
             if(state.compareAndSet(0, 2)) {
+                controlPoint.requestDequeued(System.nanoTime() - queuedTime);
                 if(cancelTask != null) {
                     try {
                         executor.execute(cancelTask);
@@ -487,12 +731,15 @@ public class RequestController implements Service<RequestController>, ServerActi
 
         public boolean runRequest() {
             if(state.compareAndSet(0, 1)) {
-                cancel();
+                controlPoint.requestDequeued(System.nanoTime() - queuedTime);
+                HashedWheelTimer.Timeout timeout = this.timeout;
+                if(timeout != null) {
+                    timeout.cancel();
+                }
                 executor.execute(new Runnable() {
                     @Override
                     public void run() {
                         try {
-                            controlPoint.beginExistingRequest();
                             task.run();
                         } finally {
                             controlPoint.requestComplete();
@@ -508,6 +755,14 @@ public class RequestController implements Service<RequestController>, ServerActi
         boolean isQueued() {
             return state.get() == 0;
         }
+
+        void setTimeout(HashedWheelTimer.Timeout timeout) {
+            this.timeout = timeout;
+            if(!isQueued()) {
+                //the task was run while the timeout was being scheduled
+                timeout.cancel();
+            }
+        }
     }
 
 }
@@ -35,6 +35,12 @@ import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
 
 
 /**
@@ -46,6 +52,9 @@ public class RequestControllerExtension implements Extension {
     protected static final PathElement SUBSYSTEM_PATH = PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME);
     private static final String RESOURCE_NAME = RequestControllerExtension.class.getPackage().getName() + ".LocalDescriptions";
 
+    private static final ModelVersion CURRENT_VERSION = ModelVersion.create(1, 2);
+    private static final ModelVersion VERSION_1_1 = ModelVersion.create(1, 1);
+
     public static StandardResourceDescriptionResolver getResolver(final String... keyPrefix) {
         StringBuilder prefix = new StringBuilder(SUBSYSTEM_NAME);
         for (String kp : keyPrefix) {
@@ -57,14 +66,35 @@ public class RequestControllerExtension implements Extension {
     @Override
     public void initializeParsers(ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.REQUEST_CONTROLLER_1_0.getUriString(), RequestControllerSubsystemParser_1_0.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.REQUEST_CONTROLLER_1_1.getUriString(), RequestControllerSubsystemParser_1_1.INSTANCE);
     }
 
     @Override
     public void initialize(ExtensionContext context) {
-        final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, ModelVersion.create(1, 1));
+        final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, CURRENT_VERSION);
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(new RequestControllerRootDefinition(context.isRuntimeOnlyRegistrationValid()));
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE, false);
-        subsystem.registerXMLElementWriter(RequestControllerSubsystemParser_1_0.INSTANCE);
+        subsystem.registerXMLElementWriter(RequestControllerSubsystemParser_1_1.INSTANCE);
+
+        if (context.isRegisterTransformers()) {
+            registerTransformers1_1(subsystem);
+        }
+    }
+
+    /**
+     * Register the transformers for hosts running model version 1.1, which has no entry points and no
+     * adaptive limit.
+     *
+     * @param subsystem the subsystem registration
+     */
+    private static void registerTransformers1_1(final SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.rejectChildResource(EntryPointResourceDefinition.PATH);
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)), RequestControllerRootDefinition.ADAPTIVE_LIMIT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, RequestControllerRootDefinition.ADAPTIVE_LIMIT)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystem, VERSION_1_1);
     }
 
 
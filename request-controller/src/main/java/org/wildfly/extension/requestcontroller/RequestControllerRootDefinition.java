@@ -54,9 +54,26 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setDefaultValue(new ModelNode(false))
             .build();
 
+    public static final SimpleAttributeDefinition ADAPTIVE_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.ADAPTIVE_LIMIT, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition CURRENT_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.CURRENT_LIMIT, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MEASURED_RTT = SimpleAttributeDefinitionBuilder.create(Constants.MEASURED_RTT, ModelType.DOUBLE, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REJECTED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.REJECTED_REQUESTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     private final boolean registerRuntimeOnly;
@@ -76,15 +93,15 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ADAPTIVE_LIMIT, ACTIVE_REQUESTS, CURRENT_LIMIT, MEASURED_RTT, REJECTED_REQUESTS});
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ADAPTIVE_LIMIT});
         }
     }
 
     @Override
     protected List<? extends PersistentResourceDefinition> getChildren() {
-        return Collections.emptyList();
+        return Collections.singletonList(new EntryPointResourceDefinition(registerRuntimeOnly));
     }
 
     @Override
@@ -92,8 +109,13 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
+        resourceRegistration.registerReadWriteAttribute(ADAPTIVE_LIMIT, null, new AdaptiveLimitWriteHandler(ADAPTIVE_LIMIT));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            LimitMetricsReadHandler limitMetricsReadHandler = new LimitMetricsReadHandler();
+            resourceRegistration.registerMetric(CURRENT_LIMIT, limitMetricsReadHandler);
+            resourceRegistration.registerMetric(MEASURED_RTT, limitMetricsReadHandler);
+            resourceRegistration.registerMetric(REJECTED_REQUESTS, limitMetricsReadHandler);
         }
     }
 }
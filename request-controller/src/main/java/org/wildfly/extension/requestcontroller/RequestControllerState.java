@@ -65,12 +65,20 @@ public class RequestControllerState {
         private final String endpoint;
         private final boolean paused;
         private final int outstandingRequests;
+        private final int queuedRequests;
+        private final long totalQueueWaitTime;
 
         public EntryPointState(String deployment, String endpoint, boolean paused, int outstandingRequests) {
+            this(deployment, endpoint, paused, outstandingRequests, 0, 0);
+        }
+
+        public EntryPointState(String deployment, String endpoint, boolean paused, int outstandingRequests, int queuedRequests, long totalQueueWaitTime) {
             this.deployment = deployment;
             this.endpoint = endpoint;
             this.paused = paused;
             this.outstandingRequests = outstandingRequests;
+            this.queuedRequests = queuedRequests;
+            this.totalQueueWaitTime = totalQueueWaitTime;
         }
 
         public String getDeployment() {
@@ -88,5 +96,16 @@ public class RequestControllerState {
         public int isOutstandingRequests() {
             return outstandingRequests;
         }
+
+        public int getQueuedRequests() {
+            return queuedRequests;
+        }
+
+        /**
+         * @return the total time in milliseconds that tasks spent queued
+         */
+        public long getTotalQueueWaitTime() {
+            return totalQueueWaitTime;
+        }
     }
 }
@@ -0,0 +1,287 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.requestcontroller;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the active requests, and enforces the maximum number of active requests, without making every
+ * request update the same memory location.
+ * <p/>
+ * The counter is split into a number of stripes, each on its own cache line, and a thread always uses the stripe
+ * selected by its id. Each stripe holds:
+ * <ul>
+ *     <li>the number of requests begun on that stripe</li>
+ *     <li>the number of requests completed on that stripe</li>
+ *     <li>a small cache of admission permits</li>
+ *     <li>the number of requests rejected on that stripe</li>
+ * </ul>
+ * The begun and completed counts only ever increase, so the number of active requests is the difference of their
+ * sums, and an exact "no active requests" check can be made by reading all stripes twice and comparing.
+ * <p/>
+ * When there is a limit on the number of active requests, the limit is represented as a set of permits. Permits
+ * live either in the shared pool or in a stripe's cache. A request takes a permit from its stripe's cache, refills
+ * the cache in batches from the pool, or as a last resort steals a permit from another stripe's cache. A completed
+ * request returns its permit to the cache of the stripe it completes on. As permits are only ever moved, never
+ * created, the limit is never exceeded.
+ * <p/>
+ * Without a limit every request still takes a permit from its stripe's cache, which is allowed to go negative, and
+ * returns it on completion. This way the permits always account for every active request, whatever limit was in
+ * force when it began or completes, and a new limit only has to adjust the pool by the difference to the last one.
+ */
+final class StripedRequestCounter {
+
+    /**
+     * Number of longs per stripe. 16 longs is 128 bytes, which keeps each stripe away from the
+     * lines of its neighbours even with adjacent line prefetching.
+     */
+    private static final int PADDING = 16;
+    private static final int BEGUN = 0;
+    private static final int COMPLETED = 1;
+    private static final int PERMITS = 2;
+    private static final int REJECTED = 3;
+
+    private static final int MAX_BATCH = 32;
+    private static final int MAX_STRIPES = 128;
+
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+    private final AtomicLong pool = new AtomicLong();
+
+    private volatile int maxRequestCount = -1;
+    private volatile int batchSize = 1;
+
+    /**
+     * The limit the permits were last set up for, which stays in place while there is no limit. Guarded by this.
+     */
+    private int permitLimit = 0;
+
+    StripedRequestCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    StripedRequestCounter(int concurrency) {
+        int stripes = 1;
+        while (stripes < concurrency && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        this.stripeMask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /**
+     * Attempts to begin a request. If this returns {@code true} then {@link #release()} must be called
+     * once the request is complete.
+     *
+     * @return {@code true} if the request is below the maximum request count
+     */
+    boolean tryAcquire() {
+        final int base = base();
+        if (maxRequestCount > 0) {
+            if (!takePermit(base)) {
+                return false;
+            }
+        } else {
+            cells.decrementAndGet(base + PERMITS);
+        }
+        cells.incrementAndGet(base + BEGUN);
+        return true;
+    }
+
+    /**
+     * Marks a request as complete.
+     */
+    void release() {
+        final int base = base();
+        if (maxRequestCount > 0) {
+            returnPermit(base);
+        } else {
+            cells.incrementAndGet(base + PERMITS);
+        }
+        cells.incrementAndGet(base + COMPLETED);
+    }
+
+    /**
+     * Records that a request was rejected because the limit had been reached.
+     */
+    void recordRejection() {
+        cells.incrementAndGet(base() + REJECTED);
+    }
+
+    /**
+     * @return the total number of requests that have been rejected
+     */
+    long getRejectedCount() {
+        return sum(REJECTED);
+    }
+
+    /**
+     * @return the total number of requests that have completed
+     */
+    long getCompletedCount() {
+        return sum(COMPLETED);
+    }
+
+    /**
+     * @return the number of active requests. This is only an estimate if requests begin or complete concurrently
+     */
+    int getActiveCount() {
+        // read the completed counts first, so a request that has been seen as completed is always seen as begun
+        long completed = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            completed += cells.get(i * PADDING + COMPLETED);
+        }
+        long begun = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            begun += cells.get(i * PADDING + BEGUN);
+        }
+        return (int) Math.max(0, begun - completed);
+    }
+
+    /**
+     * Checks whether there are no active requests. Unlike {@code getActiveCount() == 0} this never gives a false
+     * positive; as the counts only ever increase, two consecutive identical reads of every stripe are a consistent
+     * snapshot.
+     *
+     * @return {@code true} if there were no active requests at some point during the call
+     */
+    boolean isIdle() {
+        final int length = (stripeMask + 1) * 2;
+        long[] previous = new long[length];
+        long[] current = new long[length];
+        collect(previous);
+        for (;;) {
+            collect(current);
+            if (Arrays.equals(previous, current)) {
+                long active = 0;
+                for (int i = 0; i < length; i += 2) {
+                    active += current[i] - current[i + 1];
+                }
+                return active == 0;
+            }
+            long[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+    }
+
+    int getMaxRequestCount() {
+        return maxRequestCount;
+    }
+
+    /**
+     * Sets the maximum number of active requests. Requests that are active when the limit is changed count
+     * against the new limit.
+     *
+     * @param maxRequestCount the new limit, or a value less than one for no limit
+     */
+    synchronized void setMaxRequestCount(int maxRequestCount) {
+        if (maxRequestCount > 0) {
+            batchSize = Math.max(1, Math.min(MAX_BATCH, maxRequestCount / ((stripeMask + 1) * 2)));
+            // Move all cached permits back into the pool, and then correct the pool for the new limit. Active
+            // requests hold a permit whichever limit they began under, so this is exact even while they complete.
+            long cached = 0;
+            for (int i = 0; i <= stripeMask; i++) {
+                cached += cells.getAndSet(i * PADDING + PERMITS, 0);
+            }
+            pool.addAndGet(cached + maxRequestCount - permitLimit);
+            permitLimit = maxRequestCount;
+        }
+        this.maxRequestCount = maxRequestCount;
+    }
+
+    private boolean takePermit(final int base) {
+        if (takeCachedPermit(base + PERMITS)) {
+            return true;
+        }
+        // refill our cache from the shared pool
+        final int batch = batchSize;
+        for (;;) {
+            long available = pool.get();
+            if (available <= 0) {
+                break;
+            }
+            long taken = Math.min(available, batch);
+            if (pool.compareAndSet(available, available - taken)) {
+                if (taken > 1) {
+                    cells.addAndGet(base + PERMITS, taken - 1);
+                }
+                return true;
+            }
+        }
+        // the pool is empty, but there may still be permits cached on other stripes
+        for (int i = 0; i <= stripeMask; i++) {
+            if (takeCachedPermit(i * PADDING + PERMITS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean takeCachedPermit(final int index) {
+        for (;;) {
+            long permits = cells.get(index);
+            if (permits <= 0) {
+                return false;
+            }
+            if (cells.compareAndSet(index, permits, permits - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void returnPermit(final int base) {
+        // if the limit has been reduced the pool may be in debt, which always has to be paid off first
+        if (pool.get() >= 0 && cells.get(base + PERMITS) < batchSize) {
+            cells.incrementAndGet(base + PERMITS);
+        } else {
+            pool.incrementAndGet();
+        }
+    }
+
+    private long sum(final int offset) {
+        long result = 0;
+        for (int i = 0; i <= stripeMask; i++) {
+            result += cells.get(i * PADDING + offset);
+        }
+        return result;
+    }
+
+    private void collect(long[] target) {
+        for (int i = 0; i <= stripeMask; i++) {
+            target[i * 2 + 1] = cells.get(i * PADDING + COMPLETED);
+        }
+        for (int i = 0; i <= stripeMask; i++) {
+            target[i * 2] = cells.get(i * PADDING + BEGUN);
+        }
+    }
+
+    private int base() {
+        int h = (int) Thread.currentThread().getId();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return (h & stripeMask) * PADDING;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimitTestCase {
+
+    private static final double RTT = 10000000;
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(-1);
+        Assert.assertEquals(AdaptiveConcurrencyLimit.DEFAULT_INITIAL_LIMIT, limit.getLimit());
+        int previous = limit.getLimit();
+        for (int i = 0; i < 20; ++i) {
+            int current = limit.update(RTT, previous);
+            Assert.assertTrue(current >= previous);
+            previous = current;
+        }
+        Assert.assertTrue(previous > AdaptiveConcurrencyLimit.DEFAULT_INITIAL_LIMIT);
+        Assert.assertEquals(RTT, limit.getLastRtt(), 0);
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(200);
+        Assert.assertEquals(200, limit.getLimit());
+        for (int i = 0; i < 60; ++i) {
+            limit.update(RTT, limit.getLimit());
+        }
+        Assert.assertEquals(200, limit.getLimit());
+        int previous = limit.getLimit();
+        for (int i = 0; i < 10; ++i) {
+            int current = limit.update(RTT * 4, limit.getLimit());
+            Assert.assertTrue(current < previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void testUnusedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(-1);
+        for (int i = 0; i < 20; ++i) {
+            Assert.assertEquals(AdaptiveConcurrencyLimit.DEFAULT_INITIAL_LIMIT, limit.update(RTT, 10));
+        }
+    }
+
+    @Test
+    public void testMaxLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(-1);
+        Assert.assertEquals(50, limit.setMaxLimit(50));
+        for (int i = 0; i < 20; ++i) {
+            Assert.assertTrue(limit.update(RTT, 50) <= 50);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FairTaskQueueTestCase {
+
+    @Test
+    public void testWeights() {
+        RequestController controller = new RequestController(false);
+        ControlPoint heavy = new ControlPoint(controller, "a.war", "ep", false, -1, 3);
+        ControlPoint light = new ControlPoint(controller, "b.war", "ep", false, -1, 1);
+        FairTaskQueue<Task> queue = new FairTaskQueue<>();
+        for (int i = 0; i < 30; ++i) {
+            queue.add(new Task(light));
+        }
+        for (int i = 0; i < 30; ++i) {
+            queue.add(new Task(heavy));
+        }
+        int heavyCount = 0;
+        for (int i = 0; i < 20; ++i) {
+            if (queue.poll().controlPoint == heavy) {
+                heavyCount++;
+            }
+        }
+        Assert.assertEquals(15, heavyCount);
+        Assert.assertFalse(queue.isEmpty());
+        Assert.assertEquals(40, queue.clear().size());
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testControlPointLimit() {
+        RequestController controller = new RequestController(false);
+        ControlPoint limited = new ControlPoint(controller, "a.war", "ep", false, 1, 1);
+        ControlPoint other = new ControlPoint(controller, "b.war", "ep", false, -1, 1);
+        FairTaskQueue<Task> queue = new FairTaskQueue<>();
+        queue.add(new Task(limited));
+        queue.add(new Task(limited));
+        queue.add(new Task(other));
+
+        Assert.assertSame(limited, queue.poll().controlPoint);
+        Assert.assertEquals(1, limited.getActiveRequestCount());
+        // the limited control point is full, so its second task has to wait
+        Assert.assertSame(other, queue.poll().controlPoint);
+        Assert.assertNull(queue.poll());
+        Assert.assertFalse(queue.isEmpty());
+
+        limited.queuedRequestAbandoned();
+        Assert.assertSame(limited, queue.poll().controlPoint);
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    private static final class Task extends FairTaskQueue.Entry {
+        Task(ControlPoint controlPoint) {
+            super(controlPoint);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashedWheelTimerTestCase {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setup() {
+        // a small wheel, so the timeouts below need several rotations
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+        timer.start();
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testTimeoutsFireInOrderAndNotEarly() throws Exception {
+        final int count = 20;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final long[] fired = new long[count];
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final long start = System.nanoTime();
+        // scheduled in reverse, with deadlines relative to the same start, so they are only in order if the timer orders them
+        for (int i = count - 1; i >= 0; --i) {
+            final int index = i;
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    fired[index] = System.nanoTime() - start;
+                    order.add(index);
+                    latch.countDown();
+                }
+            }, Math.max(0, i * 10 - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < count; ++i) {
+            Assert.assertTrue("timeout " + i + " fired early", fired[i] >= TimeUnit.MILLISECONDS.toNanos(i * 10));
+            Assert.assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger cancelledRuns = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout cancelled = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                cancelledRuns.incrementAndGet();
+            }
+        }, 20);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100);
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertFalse(cancelled.cancel());
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, cancelledRuns.get());
+    }
+}
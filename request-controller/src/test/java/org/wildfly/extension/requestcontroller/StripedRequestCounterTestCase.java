@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedRequestCounterTestCase {
+
+    @Test
+    public void testUnlimited() {
+        StripedRequestCounter counter = new StripedRequestCounter(8);
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertTrue(counter.tryAcquire());
+        }
+        Assert.assertEquals(1000, counter.getActiveCount());
+        Assert.assertFalse(counter.isIdle());
+        for (int i = 0; i < 1000; ++i) {
+            counter.release();
+        }
+        Assert.assertEquals(0, counter.getActiveCount());
+        Assert.assertTrue(counter.isIdle());
+    }
+
+    @Test
+    public void testLimit() {
+        StripedRequestCounter counter = new StripedRequestCounter(8);
+        counter.setMaxRequestCount(10);
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertTrue(counter.tryAcquire());
+        }
+        Assert.assertFalse(counter.tryAcquire());
+        counter.release();
+        Assert.assertTrue(counter.tryAcquire());
+        Assert.assertFalse(counter.tryAcquire());
+
+        // lowering the limit blocks new requests until enough have completed
+        counter.setMaxRequestCount(5);
+        for (int i = 0; i < 5; ++i) {
+            counter.release();
+            Assert.assertFalse(counter.tryAcquire());
+        }
+        counter.release();
+        Assert.assertTrue(counter.tryAcquire());
+        Assert.assertFalse(counter.tryAcquire());
+
+        // requests that started without a limit count against a new one
+        counter.setMaxRequestCount(-1);
+        Assert.assertTrue(counter.tryAcquire());
+        Assert.assertTrue(counter.tryAcquire());
+        Assert.assertEquals(7, counter.getActiveCount());
+        counter.setMaxRequestCount(8);
+        Assert.assertTrue(counter.tryAcquire());
+        Assert.assertFalse(counter.tryAcquire());
+        for (int i = 0; i < 8; ++i) {
+            counter.release();
+        }
+        Assert.assertTrue(counter.isIdle());
+        for (int i = 0; i < 8; ++i) {
+            Assert.assertTrue(counter.tryAcquire());
+        }
+        Assert.assertFalse(counter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitWithConcurrentThreads() throws Exception {
+        final int threads = 16;
+        final int max = 20;
+        final StripedRequestCounter counter = new StripedRequestCounter(threads);
+        counter.setMaxRequestCount(max);
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxSeen = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 10000; ++j) {
+                            if (counter.tryAcquire()) {
+                                int current = active.incrementAndGet();
+                                int seen = maxSeen.get();
+                                while (current > seen && !maxSeen.compareAndSet(seen, current)) {
+                                    seen = maxSeen.get();
+                                }
+                                active.decrementAndGet();
+                                counter.release();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        Assert.assertTrue(maxSeen.get() <= max);
+        Assert.assertTrue(counter.isIdle());
+        Assert.assertEquals(0, counter.getActiveCount());
+        // every permit has been returned
+        for (int i = 0; i < max; ++i) {
+            Assert.assertTrue(counter.tryAcquire());
+        }
+        Assert.assertFalse(counter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitChangedWhileRequestsRun() throws Exception {
+        final int threads = 8;
+        final int max = 10;
+        final StripedRequestCounter counter = new StripedRequestCounter(threads);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (running.get()) {
+                            if (counter.tryAcquire()) {
+                                counter.release();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        // requests begin under one limit and complete under another
+        for (int i = 0; i < 2000; ++i) {
+            counter.setMaxRequestCount(i % 2 == 0 ? -1 : max);
+        }
+        running.set(false);
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        Assert.assertTrue(counter.isIdle());
+        counter.setMaxRequestCount(max);
+        for (int i = 0; i < max; ++i) {
+            Assert.assertTrue(counter.tryAcquire());
+        }
+        Assert.assertFalse(counter.tryAcquire());
+    }
+}
@@ -76,6 +76,7 @@ public abstract class AbstractDeploymentUnitService implements Service<Deploymen
         final DeploymentUnitPhaseService<?> phaseService = DeploymentUnitPhaseService.create(deploymentUnit, firstPhase);
         final ServiceBuilder<?> phaseServiceBuilder = target.addService(serviceName, phaseService);
         phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
+        org.jboss.as.server.Services.addServerExecutorDependency(phaseServiceBuilder, phaseService.getExecutorInjector(), true);
         phaseServiceBuilder.install();
     }
 
@@ -91,6 +91,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
+    /**
+     * The hash of the deployment contents, if the deployment is managed content. Only attached to top level deployments.
+     */
+    public static final AttachmentKey<byte[]> DEPLOYMENT_CONTENT_HASH = AttachmentKey.create(byte[].class);
+
     /**
      * <strong>Deprecated</strong>. The attached object does nothing; this key is only retained for
      * binary compatiblity. The management layer handles service verification internally, with no need
@@ -326,6 +331,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<ServiceName>> DEPLOYMENT_COMPLETE_SERVICES = AttachmentKey.createList(ServiceName.class);
 
+    /**
+     * The time spent in each deployment unit processor for this deployment unit.
+     */
+    public static final AttachmentKey<DeploymentUnitProcessorTimings> PROCESSOR_TIMINGS = AttachmentKey.create(DeploymentUnitProcessorTimings.class);
+
     //
     // CLEANUP
     //
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A deployment processor which declares the attachments it reads and writes, so that it can be run concurrently with
+ * other processors of the same phase.
+ * <p>
+ * Consecutive processors of a phase that all implement this interface are run concurrently, unless one of them writes
+ * an attachment that another one reads or writes. Such processors keep their relative order. A processor that does not
+ * implement this interface is never run concurrently with any other processor, and keeps its place in the chain.
+ * <p>
+ * Implementations must be thread safe, and must not use any attachment of the deployment unit or the phase context
+ * that they do not declare. Adding and removing list entries counts as writing the list attachment. The dependencies
+ * on the next phase added through the {@link DeploymentPhaseContext} methods are the exception: these methods are
+ * thread safe, and the order of the dependencies does not matter, so they need not be declared.
+ * <p>
+ * Processors are only run concurrently if the {@code org.jboss.as.server.deployment.concurrent-processors} system
+ * property is {@code true}. A processor run on an executor thread gets the same thread context class loader and
+ * security context as the deployment phase.
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Get the attachments that this processor reads, but does not modify.
+     *
+     * @return the read attachment keys, never {@code null}
+     */
+    Set<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Get the attachments that this processor adds, modifies or removes.
+     *
+     * @return the written attachment keys, never {@code null}
+     */
+    Set<AttachmentKey<?>> getWrittenAttachments();
+}
@@ -32,6 +32,10 @@ import org.jboss.msc.service.ServiceTarget;
  * of deployment/undeployment.  This context object will be discarded when processing is
  * complete; data which must persist for the life of the deployment should be attached to
  * the {@link DeploymentUnit}.
+ * <p>
+ * Processors of the same phase may run concurrently, see {@link ConcurrentDeploymentUnitProcessor}, so all the methods
+ * of this context, including the attachment methods and the methods adding dependencies to the next phase, are thread
+ * safe.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
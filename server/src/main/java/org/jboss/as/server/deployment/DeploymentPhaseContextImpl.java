@@ -72,7 +72,8 @@ final class DeploymentPhaseContextImpl extends SimpleAttachable implements Deplo
     }
 
     @Override
-    public <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
+    public synchronized <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
+        // processors of the same phase may run concurrently, and the service builder is not thread safe
         nextPhaseBuilder.addDependency(serviceName, type, injector);
     }
 
@@ -22,10 +22,21 @@
 
 package org.jboss.as.server.deployment;
 
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -42,9 +53,15 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
+ * <p>
+ * If the {@value #CONCURRENT_PROCESSORS_PROPERTY} system property is {@code true}, consecutive
+ * {@link ConcurrentDeploymentUnitProcessor}s whose attachments do not conflict are run concurrently on the server
+ * executor, see {@link #batchEnd(List, int)}. All other processors are run one at a time, in chain order. This is off
+ * by default.
  *
  * @param <T> the public type of this deployment unit phase
  *
@@ -54,7 +71,12 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
+    static final String CONCURRENT_PROCESSORS_PROPERTY = "org.jboss.as.server.deployment.concurrent-processors";
+
+    private static final boolean CONCURRENT_PROCESSORS = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(CONCURRENT_PROCESSORS_PROPERTY, "false"));
+
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
@@ -115,7 +137,6 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final Phase nextPhase = phase.next();
@@ -149,22 +170,29 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final RegisteredDeploymentUnitProcessor processor = iterator.next();
-            try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
-                }
-            } catch (Throwable e) {
-                while (iterator.hasPrevious()) {
-                    final RegisteredDeploymentUnitProcessor prev = iterator.previous();
-                    safeUndeploy(deploymentUnit, phase, prev);
+        DeploymentUnitProcessorTimings timings = deploymentUnit.getAttachment(Attachments.PROCESSOR_TIMINGS);
+        if (timings == null) {
+            deploymentUnit.putAttachment(Attachments.PROCESSOR_TIMINGS, timings = new DeploymentUnitProcessorTimings());
+        }
+        final ExecutorService executor = CONCURRENT_PROCESSORS ? executorInjector.getOptionalValue() : null;
+        final long start = System.nanoTime();
+        int from = 0;
+        while (from < list.size()) {
+            final int to = executor == null ? from + 1 : batchEnd(list, from);
+            final Throwable failure = deploy(processorContext, list, from, to, executor, timings);
+            if (failure != null) {
+                // like before, this includes the processors that failed
+                for (int i = to - 1; i >= 0; i--) {
+                    safeUndeploy(deploymentUnit, phase, list.get(i));
                 }
-                throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
+                throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, failure);
             }
+            from = to;
         }
+        ServerLogger.DEPLOYMENT_LOGGER.debugf("Phase %s of %s took %d ms", phase, name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
+            org.jboss.as.server.Services.addServerExecutorDependency(phaseServiceBuilder, phaseService.getExecutorInjector(), true);
             phaseServiceBuilder.addDependency(context.getController().getName());
 
             final List<ServiceName> nextPhaseDeps = processorContext.getAttachment(Attachments.NEXT_PHASE_DEPS);
@@ -206,6 +234,168 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    /**
+     * Finds the end of the batch of processors starting at the given index, i.e. the processors that can run
+     * concurrently. A batch only contains {@link ConcurrentDeploymentUnitProcessor}s, none of which writes an
+     * attachment that another one reads or writes. Any other processor is a batch of its own.
+     *
+     * @param list the processors of the phase
+     * @param from the index of the first processor of the batch
+     * @return the index after the last processor of the batch
+     */
+    static int batchEnd(final List<RegisteredDeploymentUnitProcessor> list, final int from) {
+        if (!(list.get(from).getProcessor() instanceof ConcurrentDeploymentUnitProcessor)) {
+            return from + 1;
+        }
+        final Set<AttachmentKey<?>> read = new HashSet<AttachmentKey<?>>();
+        final Set<AttachmentKey<?>> written = new HashSet<AttachmentKey<?>>();
+        int to = from;
+        while (to < list.size() && list.get(to).getProcessor() instanceof ConcurrentDeploymentUnitProcessor) {
+            final ConcurrentDeploymentUnitProcessor processor = (ConcurrentDeploymentUnitProcessor) list.get(to).getProcessor();
+            final Set<AttachmentKey<?>> reads = processor.getReadAttachments();
+            final Set<AttachmentKey<?>> writes = processor.getWrittenAttachments();
+            if (intersects(reads, written) || intersects(writes, written) || intersects(writes, read)) {
+                break;
+            }
+            read.addAll(reads);
+            written.addAll(writes);
+            to++;
+        }
+        return to;
+    }
+
+    private static boolean intersects(final Set<AttachmentKey<?>> keys, final Set<AttachmentKey<?>> others) {
+        for (AttachmentKey<?> key : keys) {
+            if (others.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deploys a batch of processors. The first one is run by the calling thread, the others on the executor. A task
+     * that the executor has not started yet when the calling thread is done with its own is run by the calling thread,
+     * so the batch completes even if the executor is saturated.
+     *
+     * @return the failure of the first processor in chain order that failed, or {@code null} if all succeeded
+     */
+    private Throwable deploy(final DeploymentPhaseContext processorContext, final List<RegisteredDeploymentUnitProcessor> list, final int from, final int to,
+                             final ExecutorService executor, final DeploymentUnitProcessorTimings timings) {
+        if (to - from == 1) {
+            try {
+                new ProcessorTask(processorContext, list.get(from), timings).call();
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        }
+        final List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(to - from);
+        for (int i = from; i < to; i++) {
+            final FutureTask<Void> task = new FutureTask<Void>(new ProcessorTask(processorContext, list.get(i), timings));
+            tasks.add(task);
+            if (i > from) {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // run below by this thread
+                }
+            }
+        }
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (FutureTask<Void> task : tasks) {
+            // does nothing if the task has already been started by the executor
+            task.run();
+            for (;;) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // the processors cannot be abandoned while they are running
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    /**
+     * Runs a processor. A task that is run by an executor thread runs with the context class loader and the security
+     * context of the thread of the phase service, so the processor sees the same context on either thread.
+     */
+    private final class ProcessorTask implements Callable<Void> {
+        private final DeploymentPhaseContext processorContext;
+        private final RegisteredDeploymentUnitProcessor processor;
+        private final DeploymentUnitProcessorTimings timings;
+        private final Thread phaseThread;
+        private final ClassLoader contextClassLoader;
+        private final AccessControlContext accessControlContext;
+
+        ProcessorTask(final DeploymentPhaseContext processorContext, final RegisteredDeploymentUnitProcessor processor, final DeploymentUnitProcessorTimings timings) {
+            this.processorContext = processorContext;
+            this.processor = processor;
+            this.timings = timings;
+            this.phaseThread = Thread.currentThread();
+            this.contextClassLoader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            this.accessControlContext = WildFlySecurityManager.isChecking() ? AccessController.getContext() : null;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            if (!shouldRun(deploymentUnit, processor)) {
+                return null;
+            }
+            if (Thread.currentThread() == phaseThread) {
+                runProcessor();
+                return null;
+            }
+            final ClassLoader oldTccl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            try {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(contextClassLoader);
+                if (accessControlContext == null) {
+                    runProcessor();
+                } else {
+                    try {
+                        AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
+                            @Override
+                            public Void run() throws DeploymentUnitProcessingException {
+                                runProcessor();
+                                return null;
+                            }
+                        }, accessControlContext);
+                    } catch (PrivilegedActionException e) {
+                        throw e.getException();
+                    }
+                }
+            } finally {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldTccl);
+            }
+            return null;
+        }
+
+        private void runProcessor() throws DeploymentUnitProcessingException {
+            final long start = System.nanoTime();
+            try {
+                processor.getProcessor().deploy(processorContext);
+            } finally {
+                final long time = System.nanoTime() - start;
+                timings.record(phase, processor.getProcessor(), time);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("%s of %s took %d ms", processor.getProcessor(), deploymentUnit.getName(), TimeUnit.NANOSECONDS.toMillis(time));
+            }
+        }
+    }
+
     private Boolean restartAllowed() {
         final DeploymentUnit parent;
         if (deploymentUnit.getParent() == null) {
@@ -226,6 +416,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             final RegisteredDeploymentUnitProcessor prev = iterator.previous();
             safeUndeploy(deploymentUnitContext, phase, prev);
         }
+        if (phase == Phase.STRUCTURE) {
+            // the first phase is the last one to stop, the timings of a new deployment cycle start from scratch
+            deploymentUnitContext.removeAttachment(Attachments.PROCESSOR_TIMINGS);
+        }
     }
 
     private Mode getDeferableInitialMode(final DeploymentUnit deploymentUnit, List<String> deferredModules) {
@@ -281,6 +475,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
+    InjectedValue<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
+
     private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if (shouldNotRun == null) {
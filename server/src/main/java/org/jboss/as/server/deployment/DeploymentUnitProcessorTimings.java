@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time spent in the {@link DeploymentUnitProcessor#deploy(DeploymentPhaseContext) deploy} method of each
+ * processor, for one deployment unit. It is available from the deployment unit under
+ * {@link Attachments#PROCESSOR_TIMINGS}.
+ * <p>
+ * Processors are identified by their phase and class name, e.g. {@code PARSE org.example.SomeProcessor}.
+ */
+public final class DeploymentUnitProcessorTimings {
+
+    private final ConcurrentMap<String, AtomicLong> times = new ConcurrentHashMap<String, AtomicLong>();
+
+    void record(final Phase phase, final DeploymentUnitProcessor processor, final long nanos) {
+        final String key = phase.name() + ' ' + processor.getClass().getName();
+        AtomicLong time = times.get(key);
+        if (time == null) {
+            final AtomicLong existing = times.putIfAbsent(key, time = new AtomicLong());
+            if (existing != null) {
+                time = existing;
+            }
+        }
+        time.addAndGet(nanos);
+    }
+
+    /**
+     * Get the time spent in each processor, slowest first.
+     *
+     * @param unit the unit of the returned times
+     * @return the times, keyed by phase and processor class name
+     */
+    public Map<String, Long> getTimes(final TimeUnit unit) {
+        final List<Map.Entry<String, AtomicLong>> entries = new ArrayList<Map.Entry<String, AtomicLong>>(times.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, AtomicLong>>() {
+            @Override
+            public int compare(final Map.Entry<String, AtomicLong> o1, final Map.Entry<String, AtomicLong> o2) {
+                return Long.compare(o2.getValue().get(), o1.getValue().get());
+            }
+        });
+        final Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : entries) {
+            result.put(entry.getKey(), unit.convert(entry.getValue().get(), TimeUnit.NANOSECONDS));
+        }
+        return result;
+    }
+
+    /**
+     * Get the total time spent in all processors. As processors may run concurrently this can be more than the time
+     * the deployment took.
+     *
+     * @param unit the unit of the returned time
+     * @return the total time
+     */
+    public long getTotalTime(final TimeUnit unit) {
+        long total = 0;
+        for (AtomicLong time : times.values()) {
+            total += time.get();
+        }
+        return unit.convert(total, TimeUnit.NANOSECONDS);
+    }
+}
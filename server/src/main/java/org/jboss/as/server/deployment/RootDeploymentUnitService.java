@@ -51,6 +51,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private Resource resource;
     private final AbstractVaultReader vaultReader;
     private final DeploymentOverlayIndex deploymentOverlays;
+    private final byte[] contentHash;
 
     /**
      * Construct a new instance.
@@ -63,8 +64,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param resource the model
      * @param vaultReader the vault reader
      * @param deploymentOverlays the deployment overlays
+     * @param contentHash the hash of the managed content, or {@code null} if the content is not managed
      */
-    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays) {
+    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, final byte[] contentHash) {
         assert name != null : "name is null";
         this.name = name;
         this.managementName = managementName;
@@ -74,6 +76,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.resource = resource;
         this.vaultReader = vaultReader;
         this.deploymentOverlays = deploymentOverlays;
+        this.contentHash = contentHash;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -81,6 +84,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.RUNTIME_NAME, name);
         deploymentUnit.putAttachment(Attachments.MANAGEMENT_NAME, managementName);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contentsInjector.getValue());
+        if (contentHash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENT_HASH, contentHash);
+        }
         deploymentUnit.putAttachment(DeploymentModelUtils.REGISTRATION_ATTACHMENT, registration);
         deploymentUnit.putAttachment(DeploymentModelUtils.MUTABLE_REGISTRATION_ATTACHMENT, mutableRegistration);
         deploymentUnit.putAttachment(DeploymentModelUtils.DEPLOYMENT_RESOURCE, resource);
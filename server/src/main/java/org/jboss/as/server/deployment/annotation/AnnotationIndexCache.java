@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A cache of the annotation indexes of the resource roots of managed deployments, stored in the server data directory.
+ * <p/>
+ * Managed content never changes once it has been added to the content repository, so the index of a resource root is
+ * identified by the hash of the deployment content, the deployment overlays that apply to the deployment, the path of
+ * the resource root within the deployment, and the paths that are excluded from indexing. Unmanaged deployments are
+ * never cached.
+ * <p/>
+ * The total size of the cache is limited by the {@value #MAX_SIZE_PROPERTY} system property, in megabytes. When the
+ * limit is exceeded the least recently used indexes are removed. A limit of zero disables the cache.
+ */
+final class AnnotationIndexCache {
+
+    static final String MAX_SIZE_PROPERTY = "org.jboss.as.server.deployment.annotation-index-cache.max-size";
+
+    private static final String DIRECTORY = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    /** Part of every key, so changing it invalidates every existing index */
+    private static final String VERSION = "1";
+    private static final long DEFAULT_MAX_SIZE = 256;
+    private static final long MAX_SIZE = getMaxSize() * 1024 * 1024;
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private final File directory;
+    private final long maxSize;
+    private final VirtualFile deploymentRoot;
+    private final byte[] deploymentKey;
+
+    AnnotationIndexCache(File directory, long maxSize, VirtualFile deploymentRoot, byte[] contentHash, Map<String, byte[]> overlays) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.deploymentRoot = deploymentRoot;
+        final MessageDigest digest = createDigest();
+        digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update(contentHash);
+        for (Map.Entry<String, byte[]> overlay : new TreeMap<>(overlays).entrySet()) {
+            update(digest, overlay.getKey());
+            digest.update(overlay.getValue());
+        }
+        this.deploymentKey = digest.digest();
+    }
+
+    /**
+     * Gets the cache for a deployment.
+     *
+     * @param deploymentUnit the deployment, or a sub deployment
+     * @return the cache, or {@code null} if the resource roots of the deployment cannot be cached
+     */
+    static AnnotationIndexCache forDeployment(final DeploymentUnit deploymentUnit) {
+        if (MAX_SIZE <= 0 || deploymentUnit == null) {
+            return null;
+        }
+        final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final byte[] contentHash = topLevel.getAttachment(Attachments.DEPLOYMENT_CONTENT_HASH);
+        final PathManager pathManager = topLevel.getAttachment(Attachments.PATH_MANAGER);
+        final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (contentHash == null || pathManager == null || deploymentRoot == null) {
+            return null;
+        }
+        final DeploymentOverlayIndex overlayIndex = topLevel.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+        final Map<String, byte[]> overlays;
+        if (overlayIndex != null) {
+            overlays = overlayIndex.getOverlays(topLevel.getName());
+        } else {
+            overlays = new TreeMap<>();
+        }
+        final File directory = new File(pathManager.resolveRelativePathEntry(DIRECTORY, ServerEnvironment.SERVER_DATA_DIR));
+        return new AnnotationIndexCache(directory, MAX_SIZE, deploymentRoot.getRoot(), contentHash, overlays);
+    }
+
+    /**
+     * Gets the file that the index of a resource root is cached in.
+     *
+     * @param resourceRoot the resource root
+     * @param indexIgnorePaths the paths within the resource root that are not indexed, may be {@code null}
+     * @return the file, or {@code null} if the resource root is not part of the deployment content
+     */
+    File getFile(final ResourceRoot resourceRoot, final Collection<String> indexIgnorePaths) {
+        final VirtualFile root = resourceRoot.getRoot();
+        final String path;
+        if (root.equals(deploymentRoot)) {
+            path = "";
+        } else {
+            try {
+                path = root.getPathNameRelativeTo(deploymentRoot);
+            } catch (IllegalArgumentException e) {
+                // e.g. a Class-Path entry that points outside the deployment
+                return null;
+            }
+        }
+        final MessageDigest digest = createDigest();
+        digest.update(deploymentKey);
+        update(digest, path);
+        if (indexIgnorePaths != null) {
+            for (String ignored : new TreeSet<>(indexIgnorePaths)) {
+                update(digest, ignored);
+            }
+        }
+        return new File(directory, HashUtil.bytesToHexString(digest.digest()) + SUFFIX);
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param file the file returned by {@link #getFile(ResourceRoot, Collection)}
+     * @return the index, or {@code null} if it has not been cached
+     */
+    Index read(final File file) {
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                final Index index = new IndexReader(in).read();
+                // Mark the index as recently used
+                file.setLastModified(System.currentTimeMillis());
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Read cached annotation index %s (%d hits, %d misses)", file, HITS.incrementAndGet(), MISSES.get());
+                return index;
+            } catch (Exception e) {
+                ServerLogger.DEPLOYMENT_LOGGER.cannotLoadAnnotationIndex(file.getPath());
+            }
+            file.delete();
+        }
+        MISSES.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Writes an index to the cache. Failures are logged, as they only mean the resource root will be indexed again.
+     *
+     * @param file the file returned by {@link #getFile(ResourceRoot, Collection)}
+     * @param index the index
+     */
+    void write(final File file, final Index index) {
+        File tmp = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException(directory.getPath());
+            }
+            tmp = File.createTempFile(file.getName(), ".tmp", directory);
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                new IndexWriter(out).write(index);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+            evict();
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not cache annotation index in %s", file);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used indexes until the cache is at most three quarters of its maximum size.
+     */
+    private void evict() {
+        synchronized (AnnotationIndexCache.class) {
+            final File[] files = directory.listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(File dir, String name) {
+                    return name.endsWith(SUFFIX);
+                }
+            });
+            if (files == null) {
+                return;
+            }
+            long size = 0;
+            final long[] lastModified = new long[files.length];
+            for (int i = 0; i < files.length; i++) {
+                size += files[i].length();
+            }
+            if (size <= maxSize) {
+                return;
+            }
+            for (int i = 0; i < files.length; i++) {
+                lastModified[i] = files[i].lastModified();
+            }
+            final Integer[] order = new Integer[files.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Long.compare(lastModified[o1], lastModified[o2]);
+                }
+            });
+            final long target = maxSize / 4 * 3;
+            for (int i = 0; i < order.length && size > target; i++) {
+                final File file = files[order[i]];
+                final long length = file.length();
+                if (file.delete()) {
+                    size -= length;
+                }
+            }
+        }
+    }
+
+    static long getHitCount() {
+        return HITS.get();
+    }
+
+    static long getMissCount() {
+        return MISSES.get();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // a separator, so that different splits of the same characters never give the same key
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the configured maximum size in megabytes, or the default if the property is not a valid number
+     */
+    private static long getMaxSize() {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, null);
+        if (value == null) {
+            return DEFAULT_MAX_SIZE;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(MAX_SIZE_PROPERTY, value);
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+}
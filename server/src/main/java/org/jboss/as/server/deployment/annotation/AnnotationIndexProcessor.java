@@ -27,7 +27,6 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
-import org.jboss.as.server.deployment.module.ResourceRoot;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -47,9 +46,7 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
-        }
+        ParallelIndexer.indexResourceRoots(DeploymentUtils.allResourceRoots(deploymentUnit), deploymentUnit);
     }
 
     public void undeploy(final DeploymentUnit context) {
@@ -31,19 +31,35 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Composite annotation index.  Represents an annotation index for an entire deployment.
+ * <p/>
+ * The result of each lookup is computed once, from all the indexes, and then shared by every later lookup of the same
+ * name, as the same lookups are made by many deployment unit processors. The collection of indexes must not be
+ * modified once the composite index has been created.
  *
  * @author John Bailey
  */
 public class CompositeIndex {
     final Collection<Index> indexes;
 
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<DotName, List<AnnotationInstance>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private volatile Map<DotName, ClassInfo> classes;
+    private volatile Collection<ClassInfo> knownClasses;
+
     public CompositeIndex(final Collection<Index> indexes) {
         this.indexes = indexes;
     }
@@ -59,28 +75,36 @@ public class CompositeIndex {
      * @see {@link Index#getAnnotations(org.jboss.jandex.DotName)}
      */
     public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
-        final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
-        for (Index index : indexes) {
-            final List<AnnotationInstance> list = index.getAnnotations(annotationName);
-            if (list != null) {
-                allInstances.addAll(list);
+        List<AnnotationInstance> result = annotations.get(annotationName);
+        if (result == null) {
+            final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
+            for (Index index : indexes) {
+                final List<AnnotationInstance> list = index.getAnnotations(annotationName);
+                if (list != null) {
+                    allInstances.addAll(list);
+                }
             }
+            result = cache(annotations, annotationName, allInstances.isEmpty() ? Collections.<AnnotationInstance>emptyList() : Collections.unmodifiableList(allInstances));
         }
-        return Collections.unmodifiableList(allInstances);
+        return result;
     }
 
     /**
      * @see {@link Index#getKnownDirectSubclasses(org.jboss.jandex.DotName)}
      */
     public Set<ClassInfo> getKnownDirectSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = cache(directSubclasses, className, allKnown);
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -88,13 +112,18 @@ public class CompositeIndex {
      * assignable to the given class);
      *
      * @param className The class
-     * @return All known subclasses
+     * @return All known subclasses, in a set that the caller may modify
      */
     public Set<ClassInfo> getAllKnownSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        getAllKnownSubClasses(className, allKnown, processedClasses);
-        return allKnown;
+        Set<ClassInfo> result = allSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            getAllKnownSubClasses(className, allKnown, processedClasses);
+            result = cache(allSubclasses, className, allKnown);
+        }
+        // callers have always been given a set of their own
+        return new HashSet<ClassInfo>(result);
     }
 
     private void getAllKnownSubClasses(DotName className, Set<ClassInfo> allKnown, Set<DotName> processedClasses) {
@@ -111,16 +140,11 @@ public class CompositeIndex {
 
     private void getAllKnownSubClasses(DotName name, Set<ClassInfo> allKnown, Set<DotName> subClassesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        allKnown.add(clazz);
-                        subClassesToProcess.add(className);
-                    }
-                }
+        for (final ClassInfo clazz : getKnownDirectSubclasses(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                allKnown.add(clazz);
+                subClassesToProcess.add(className);
             }
         }
     }
@@ -129,14 +153,18 @@ public class CompositeIndex {
      * @see {@link Index#getKnownDirectImplementors(DotName)}
      */
     public Set<ClassInfo> getKnownDirectImplementors(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directImplementors.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectImplementors(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = cache(directImplementors, className, allKnown);
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -147,9 +175,18 @@ public class CompositeIndex {
      * This will only return classes, not interfaces.
      *
      * @param interfaceName The interface
-     * @return All known implementors of the interface
+     * @return All known implementors of the interface, in a set that the caller may modify
      */
     public Set<ClassInfo> getAllKnownImplementors(final DotName interfaceName) {
+        Set<ClassInfo> result = allImplementors.get(interfaceName);
+        if (result == null) {
+            result = findAllKnownImplementors(interfaceName);
+        }
+        // callers have always been given a set of their own
+        return new HashSet<ClassInfo>(result);
+    }
+
+    private Set<ClassInfo> findAllKnownImplementors(final DotName interfaceName) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
         final Set<DotName> processedClasses = new HashSet<DotName>();
@@ -161,26 +198,21 @@ public class CompositeIndex {
             processedClasses.add(name);
             getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
         }
-        return allKnown;
+        return cache(allImplementors, interfaceName, allKnown);
     }
 
     private void getKnownImplementors(DotName name, Set<ClassInfo> allKnown, Set<DotName> subInterfacesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        if (Modifier.isInterface(clazz.flags())) {
-                            subInterfacesToProcess.add(className);
-                        } else {
-                            if (!allKnown.contains(clazz)) {
-                                allKnown.add(clazz);
-                                processedClasses.add(className);
-                                getAllKnownSubClasses(className, allKnown, processedClasses);
-                            }
-                        }
+        for (final ClassInfo clazz : getKnownDirectImplementors(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                if (Modifier.isInterface(clazz.flags())) {
+                    subInterfacesToProcess.add(className);
+                } else {
+                    if (!allKnown.contains(clazz)) {
+                        allKnown.add(clazz);
+                        processedClasses.add(className);
+                        getAllKnownSubClasses(className, allKnown, processedClasses);
                     }
                 }
             }
@@ -191,30 +223,56 @@ public class CompositeIndex {
      * @see {@link Index#getClassByName(org.jboss.jandex.DotName)}
      */
     public ClassInfo getClassByName(final DotName className) {
-        for (Index index : indexes) {
-            final ClassInfo info = index.getClassByName(className);
-            if (info != null) {
-                return info;
+        Map<DotName, ClassInfo> classes = this.classes;
+        if (classes == null) {
+            classes = new HashMap<DotName, ClassInfo>();
+            for (Index index : indexes) {
+                final Collection<ClassInfo> list = index.getKnownClasses();
+                if (list != null) {
+                    for (ClassInfo info : list) {
+                        // the first index that knows a class wins
+                        if (!classes.containsKey(info.name())) {
+                            classes.put(info.name(), info);
+                        }
+                    }
+                }
             }
+            this.classes = classes;
         }
-        return null;
+        return classes.get(className);
     }
 
     /**
      * @see {@link org.jboss.jandex.Index#getKnownClasses()}
      */
     public Collection<ClassInfo> getKnownClasses() {
-        final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
-        for (Index index : indexes) {
-            final Collection<ClassInfo> list = index.getKnownClasses();
-            if (list != null) {
-                allKnown.addAll(list);
+        Collection<ClassInfo> knownClasses = this.knownClasses;
+        if (knownClasses == null) {
+            final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
+            for (Index index : indexes) {
+                final Collection<ClassInfo> list = index.getKnownClasses();
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            knownClasses = Collections.unmodifiableCollection(allKnown);
+            this.knownClasses = knownClasses;
         }
-        return Collections.unmodifiableCollection(allKnown);
+        return knownClasses;
     }
 
     public Collection<Index> getIndexes() {
         return Collections.unmodifiableCollection(indexes);
     }
+
+    private static <T> List<T> cache(final ConcurrentMap<DotName, List<T>> cache, final DotName name, final List<T> value) {
+        final List<T> existing = cache.putIfAbsent(name, value);
+        return existing == null ? value : existing;
+    }
+
+    private static Set<ClassInfo> cache(final ConcurrentMap<DotName, Set<ClassInfo>> cache, final DotName name, final Set<ClassInfo> value) {
+        final Set<ClassInfo> result = value.isEmpty() ? Collections.<ClassInfo>emptySet() : Collections.unmodifiableSet(value);
+        final Set<ClassInfo> existing = cache.putIfAbsent(name, result);
+        return existing == null ? result : existing;
+    }
 }
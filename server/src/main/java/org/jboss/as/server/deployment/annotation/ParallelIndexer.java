@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.VirtualFile;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Indexes resource roots, and the classes within a large resource root, in parallel on a shared fork/join pool.
+ * <p/>
+ * A jandex {@link org.jboss.jandex.Indexer} is not thread safe, so the class files of a large root are split into
+ * partitions that are indexed separately, and the partial indexes are then merged into a single {@link Index}, as
+ * that is what is attached to the resource root. When several roots are indexed in parallel, the partitions of a large
+ * root are forked into the same pool.
+ * <p/>
+ * The parallelism is set by the {@value #PARALLELISM_PROPERTY} system property, and defaults to the number of
+ * processors. A parallelism of one indexes everything on the deployment thread, as before.
+ */
+final class ParallelIndexer {
+
+    static final String PARALLELISM_PROPERTY = "org.jboss.as.server.deployment.annotation-index.parallelism";
+
+    private static final int PARALLELISM = getParallelism();
+
+    /**
+     * Roots with fewer classes than this are indexed in a single task, and partitions are never smaller than this
+     */
+    static final int MIN_PARTITION_SIZE = 256;
+
+    private ParallelIndexer() {
+    }
+
+    /**
+     * @param classCount the number of classes in a resource root
+     * @return {@code true} if the resource root should be indexed in parallel
+     */
+    static boolean isEnabled(final int classCount) {
+        return PARALLELISM > 1 && classCount > MIN_PARTITION_SIZE;
+    }
+
+    private static int getParallelism() {
+        final int defaultValue = Runtime.getRuntime().availableProcessors();
+        final String value = WildFlySecurityManager.getPropertyPrivileged(PARALLELISM_PROPERTY, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final int parallelism = Integer.parseInt(value.trim());
+            if (parallelism > 0) {
+                return parallelism;
+            }
+        } catch (NumberFormatException e) {
+            // fall back to the default
+        }
+        ServerLogger.ROOT_LOGGER.invalidSystemPropertyValue(value, PARALLELISM_PROPERTY, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Indexes the class files of a resource root in parallel.
+     *
+     * @param root the resource root
+     * @param classFiles the class files in the resource root
+     * @return the index
+     */
+    static Index index(final VirtualFile root, final List<VirtualFile> classFiles) {
+        // a few partitions per thread, so a thread that is slowed down by large classes does not hold up the others
+        final int size = classFiles.size();
+        final int partitionSize = Math.max(MIN_PARTITION_SIZE, size / (PARALLELISM * 4));
+        final List<IndexTask> tasks = new ArrayList<>();
+        for (int from = 0; from < size; from += partitionSize) {
+            tasks.add(new IndexTask(root, classFiles, from, Math.min(size, from + partitionSize)));
+        }
+        invokeInPool(tasks);
+        final List<Index> indexes = new ArrayList<>(tasks.size());
+        for (IndexTask task : tasks) {
+            indexes.add(task.join());
+        }
+        return merge(indexes);
+    }
+
+    /**
+     * Indexes a number of resource roots in parallel, with {@link ResourceRootIndexer#indexResourceRoot(ResourceRoot, DeploymentUnit)}.
+     *
+     * @param resourceRoots the resource roots
+     * @param deploymentUnit the deployment unit the resource roots belong to
+     * @throws DeploymentUnitProcessingException if a resource root could not be indexed
+     */
+    static void indexResourceRoots(final List<ResourceRoot> resourceRoots, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
+        if (PARALLELISM <= 1 || resourceRoots.size() <= 1) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, deploymentUnit);
+            }
+            return;
+        }
+        final List<ResourceRootTask> tasks = new ArrayList<>(resourceRoots.size());
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            tasks.add(new ResourceRootTask(resourceRoot, deploymentUnit));
+        }
+        invokeInPool(tasks);
+        for (ResourceRootTask task : tasks) {
+            if (task.failure != null) {
+                throw task.failure;
+            }
+        }
+    }
+
+    /**
+     * Merges the indexes of distinct sets of classes.
+     *
+     * @param indexes the indexes
+     * @return an index of all the classes
+     */
+    static Index merge(final List<Index> indexes) {
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<>();
+        final Map<DotName, List<ClassInfo>> implementors = new HashMap<>();
+        final Map<DotName, ClassInfo> classes = new HashMap<>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.put(classInfo.name(), classInfo);
+                if (classInfo.superName() != null) {
+                    add(subclasses, classInfo.superName(), classInfo);
+                }
+                for (DotName name : classInfo.interfaces()) {
+                    add(implementors, name, classInfo);
+                }
+                for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                    List<AnnotationInstance> list = annotations.get(entry.getKey());
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        annotations.put(entry.getKey(), list);
+                    }
+                    list.addAll(entry.getValue());
+                }
+            }
+        }
+        return Index.create(annotations, subclasses, implementors, classes);
+    }
+
+    private static void invokeInPool(final List<? extends ForkJoinTask<?>> tasks) {
+        final RecursiveAction action = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        };
+        if (ForkJoinTask.inForkJoinPool()) {
+            // a large root indexed as part of indexing several roots, the partitions are just more tasks in the same pool
+            action.invoke();
+        } else {
+            PoolHolder.POOL.invoke(action);
+        }
+    }
+
+    private static void add(final Map<DotName, List<ClassInfo>> map, final DotName name, final ClassInfo classInfo) {
+        List<ClassInfo> list = map.get(name);
+        if (list == null) {
+            list = new ArrayList<>();
+            map.put(name, list);
+        }
+        list.add(classInfo);
+    }
+
+    private static final class IndexTask extends RecursiveTask<Index> {
+        private final VirtualFile root;
+        private final List<VirtualFile> classFiles;
+        private final int from;
+        private final int to;
+
+        IndexTask(final VirtualFile root, final List<VirtualFile> classFiles, final int from, final int to) {
+            this.root = root;
+            this.classFiles = classFiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Index compute() {
+            return ResourceRootIndexer.index(root, classFiles, from, to);
+        }
+    }
+
+    private static final class ResourceRootTask extends RecursiveAction {
+        private final ResourceRoot resourceRoot;
+        private final DeploymentUnit deploymentUnit;
+        private DeploymentUnitProcessingException failure;
+
+        ResourceRootTask(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) {
+            this.resourceRoot = resourceRoot;
+            this.deploymentUnit = deploymentUnit;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, deploymentUnit);
+            } catch (DeploymentUnitProcessingException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private static final class PoolHolder {
+        static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+                final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("annotation-indexer-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                // do not keep the class loader of whichever deployment started the thread
+                thread.setContextClassLoader(ParallelIndexer.class.getClassLoader());
+                return thread;
+            }
+        }, null, false);
+    }
+}
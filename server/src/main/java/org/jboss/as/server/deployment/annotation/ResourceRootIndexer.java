@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +30,7 @@ import java.util.Set;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
@@ -50,6 +52,18 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If the
+     * resource root is part of managed deployment content its index is cached in the server data directory, and
+     * read from there when the same content is deployed again.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to, or {@code null} to not use the cache
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -80,8 +94,17 @@ public class ResourceRootIndexer {
             indexIgnorePaths = null;
         }
 
+        final AnnotationIndexCache cache = AnnotationIndexCache.forDeployment(deploymentUnit);
+        final File cacheFile = cache == null ? null : cache.getFile(resourceRoot, indexIgnorePaths);
+        if (cacheFile != null) {
+            final Index index = cache.read(cacheFile);
+            if (index != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                return;
+            }
+        }
+
         final VirtualFile virtualFile = resourceRoot.getRoot();
-        final Indexer indexer = new Indexer();
         try {
             final VisitorAttributes visitorAttributes = new VisitorAttributes();
             visitorAttributes.setLeavesOnly(true);
@@ -92,22 +115,45 @@ public class ResourceRootIndexer {
             });
 
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-            for (VirtualFile classFile : classChildren) {
-                InputStream inputStream = null;
-                try {
-                    inputStream = classFile.openStream();
-                    indexer.index(inputStream);
-                } catch (Exception e) {
-                    ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
-                } finally {
-                    VFSUtils.safeClose(inputStream);
-                }
+            final Index index;
+            if (ParallelIndexer.isEnabled(classChildren.size())) {
+                index = ParallelIndexer.index(virtualFile, classChildren);
+            } else {
+                index = index(virtualFile, classChildren, 0, classChildren.size());
             }
-            final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+            if (cacheFile != null) {
+                cache.write(cacheFile, index);
+            }
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Indexes a range of the class files of a resource root.
+     *
+     * @param root the resource root
+     * @param classFiles the class files of the resource root
+     * @param from the index of the first class file to index, inclusive
+     * @param to the index of the last class file to index, exclusive
+     * @return the index of the classes
+     */
+    static Index index(final VirtualFile root, final List<VirtualFile> classFiles, final int from, final int to) {
+        final Indexer indexer = new Indexer();
+        for (int i = from; i < to; i++) {
+            final VirtualFile classFile = classFiles.get(i);
+            InputStream inputStream = null;
+            try {
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } catch (Exception e) {
+                ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(root), root.getPathName(), e);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        return indexer.complete();
+    }
 }
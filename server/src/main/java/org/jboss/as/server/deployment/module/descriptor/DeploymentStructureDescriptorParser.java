@@ -207,7 +207,7 @@ public class DeploymentStructureDescriptorParser implements DeploymentUnitProces
                 additional.addSystemDependencies(additionalModule.getModuleDependencies());
                 deploymentUnit.addToAttachmentList(Attachments.ADDITIONAL_MODULES, additional);
                 for (final ResourceRoot root : additionalModuleResourceRoots) {
-                    ResourceRootIndexer.indexResourceRoot(root);
+                    ResourceRootIndexer.indexResourceRoot(root, deploymentUnit);
                 }
             }
 
@@ -234,7 +234,7 @@ public class DeploymentStructureDescriptorParser implements DeploymentUnitProces
             } else {
                 deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, additionalResourceRoot);
                 //compute the annotation index for the root
-                ResourceRootIndexer.indexResourceRoot(additionalResourceRoot);
+                ResourceRootIndexer.indexResourceRoot(additionalResourceRoot, deploymentUnit);
                 ModuleRootMarker.mark(additionalResourceRoot);
             }
         }
@@ -22,19 +22,35 @@
 
 package org.jboss.as.server.deployment.reflect;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.security.ServerPermission;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleClassLoader;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * The index of each class is computed at most once, on first use, and lookups of different classes do not block
+ * each other. Lookups of a class whose index is already known do not block at all.
+ * <p/>
+ * If the {@value #SHARED_CACHE_PROPERTY} system property is {@code true} the indexes of JDK classes and of classes
+ * from static modules are also shared between all deployments, as these classes can never be unloaded.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+
+    static final String SHARED_CACHE_PROPERTY = "org.jboss.as.server.deployment.reflection-index.shared-cache";
+
+    private static final boolean SHARED_CACHE_ENABLED = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SHARED_CACHE_PROPERTY, "false"));
+
+    private static final ConcurrentMap<Class<?>, Entry<?>> SHARED = new ConcurrentHashMap<Class<?>, Entry<?>>();
+
+    private final ConcurrentMap<Class<?>, Entry<?>> classes = new ConcurrentHashMap<Class<?>, Entry<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,15 +75,77 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
-        try {
-            ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+        Entry<T> entry = (Entry<T>) classes.get(clazz);
+        if (entry == null) {
+            if (SHARED_CACHE_ENABLED && isStatic(clazz)) {
+                entry = getEntry(SHARED, clazz);
+            } else {
+                entry = new Entry<T>(clazz);
+            }
+            final Entry<T> existing = (Entry<T>) classes.putIfAbsent(clazz, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry.getIndex();
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static <T> Entry<T> getEntry(ConcurrentMap<Class<?>, Entry<?>> map, Class<T> clazz) {
+        Entry<T> entry = (Entry<T>) map.get(clazz);
+        if (entry == null) {
+            entry = new Entry<T>(clazz);
+            final Entry<T> existing = (Entry<T>) map.putIfAbsent(clazz, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Checks whether a class can never be unloaded, i.e. it is a JDK class or it belongs to a module loaded by the
+     * boot module loader. Indexes of these classes can be shared without keeping any deployment class loader alive.
+     */
+    static boolean isStatic(Class<?> clazz) {
+        final ClassLoader classLoader = WildFlySecurityManager.getClassLoaderPrivileged(clazz);
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            return ((ModuleClassLoader) classLoader).getModule().getModuleLoader() == Module.getBootModuleLoader();
+        }
+        return false;
+    }
+
+    /**
+     * Holds the index of one class, which is computed by the first thread that asks for it. Other threads asking for
+     * the same class wait for that computation rather than repeating it.
+     */
+    private static final class Entry<T> {
+        private final Class<T> clazz;
+        private volatile ClassReflectionIndex<T> index;
+
+        Entry(Class<T> clazz) {
+            this.clazz = clazz;
+        }
+
+        ClassReflectionIndex<T> getIndex() {
+            ClassReflectionIndex<T> index = this.index;
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                synchronized (this) {
+                    index = this.index;
+                    if (index == null) {
+                        try {
+                            this.index = index = new ClassReflectionIndex<T>(clazz, null);
+                        } catch (Throwable e) {
+                            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
+                        }
+                    }
+                }
             }
             return index;
-        } catch (Throwable e) {
-            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
 }
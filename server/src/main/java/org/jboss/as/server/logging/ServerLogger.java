@@ -1107,4 +1107,8 @@ public interface ServerLogger extends BasicLogger {
 
     @Message(id = 223, value="Illegal permission actions '%s'")
     IllegalArgumentException illegalPermissionActions(String actions);
+
+    @LogMessage(level = WARN)
+    @Message(id = 224, value = "Invalid value '%s' for system property %s, using %d instead")
+    void invalidSystemPropertyValue(String value, String property, int defaultValue);
 }
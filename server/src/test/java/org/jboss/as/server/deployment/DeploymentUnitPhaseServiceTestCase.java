@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeploymentUnitPhaseServiceTestCase {
+
+    private static final AttachmentKey<String> A = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> B = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> C = AttachmentKey.create(String.class);
+
+    @Test
+    public void testUndeclaredProcessorsRunAlone() {
+        final List<RegisteredDeploymentUnitProcessor> list = Arrays.asList(
+                registered(new Processor()),
+                registered(new Concurrent(keys(A), keys(B))),
+                registered(new Concurrent(keys(A), keys(C))),
+                registered(new Processor()),
+                registered(new Concurrent(keys(), keys(A))));
+        Assert.assertEquals(1, DeploymentUnitPhaseService.batchEnd(list, 0));
+        Assert.assertEquals(3, DeploymentUnitPhaseService.batchEnd(list, 1));
+        Assert.assertEquals(3, DeploymentUnitPhaseService.batchEnd(list, 2));
+        Assert.assertEquals(4, DeploymentUnitPhaseService.batchEnd(list, 3));
+        Assert.assertEquals(5, DeploymentUnitPhaseService.batchEnd(list, 4));
+    }
+
+    @Test
+    public void testConflictingProcessorsKeepTheirOrder() {
+        final List<RegisteredDeploymentUnitProcessor> list = Arrays.asList(
+                registered(new Concurrent(keys(A), keys())),
+                registered(new Concurrent(keys(A), keys())),
+                // writes what the previous ones read
+                registered(new Concurrent(keys(), keys(A))),
+                // reads what the previous one writes
+                registered(new Concurrent(keys(A, B), keys())),
+                registered(new Concurrent(keys(), keys(C))),
+                // writes what the previous one writes
+                registered(new Concurrent(keys(), keys(C))));
+        Assert.assertEquals(2, DeploymentUnitPhaseService.batchEnd(list, 0));
+        Assert.assertEquals(3, DeploymentUnitPhaseService.batchEnd(list, 2));
+        Assert.assertEquals(5, DeploymentUnitPhaseService.batchEnd(list, 3));
+        Assert.assertEquals(6, DeploymentUnitPhaseService.batchEnd(list, 5));
+    }
+
+    private static RegisteredDeploymentUnitProcessor registered(final DeploymentUnitProcessor processor) {
+        return new RegisteredDeploymentUnitProcessor(0, processor, "test");
+    }
+
+    private static Set<AttachmentKey<?>> keys(final AttachmentKey<?>... keys) {
+        return Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.asList(keys)));
+    }
+
+    private static class Processor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    private static class Concurrent extends Processor implements ConcurrentDeploymentUnitProcessor {
+        private final Set<AttachmentKey<?>> read;
+        private final Set<AttachmentKey<?>> written;
+
+        Concurrent(final Set<AttachmentKey<?>> read, final Set<AttachmentKey<?>> written) {
+            this.read = read;
+            this.written = written;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getReadAttachments() {
+            return read;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getWrittenAttachments() {
+            return written;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AnnotationIndexCacheTestCase {
+
+    private static final byte[] HASH = new byte[] {1, 2, 3, 4};
+    private static final byte[] OTHER_HASH = new byte[] {1, 2, 3, 5};
+
+    private File directory;
+    private VirtualFile deploymentRoot;
+
+    @Before
+    public void setup() throws Exception {
+        directory = new File(new File(System.getProperty("java.io.tmpdir")), "annotation-index-" + System.nanoTime());
+        deploymentRoot = VFS.getChild(new File(directory, "deployment.ear").getAbsolutePath());
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testKeys() {
+        final Map<String, byte[]> noOverlays = Collections.emptyMap();
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, noOverlays);
+        final ResourceRoot lib = resourceRoot("lib/a.jar");
+        final File file = cache.getFile(lib, null);
+        Assert.assertNotNull(file);
+        Assert.assertEquals(file, new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, noOverlays).getFile(lib, null));
+        Assert.assertNotNull(cache.getFile(new ResourceRoot(deploymentRoot, null), null));
+
+        // anything that can change the index changes the key
+        Assert.assertFalse(file.equals(cache.getFile(resourceRoot("lib/b.jar"), null)));
+        Assert.assertFalse(file.equals(cache.getFile(lib, Collections.singletonList("org/jboss"))));
+        Assert.assertFalse(file.equals(new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, OTHER_HASH, noOverlays).getFile(lib, null)));
+        final Map<String, byte[]> overlays = new HashMap<>();
+        overlays.put("lib/a.jar", OTHER_HASH);
+        Assert.assertFalse(file.equals(new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, overlays).getFile(lib, null)));
+
+        // resource roots outside the deployment are not cached
+        Assert.assertNull(cache.getFile(new ResourceRoot(VFS.getChild(directory.getAbsolutePath()).getChild("other.jar"), null), null));
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, Collections.<String, byte[]>emptyMap());
+        final File file = cache.getFile(resourceRoot("lib/a.jar"), null);
+        final long hits = AnnotationIndexCache.getHitCount();
+        final long misses = AnnotationIndexCache.getMissCount();
+        Assert.assertNull(cache.read(file));
+        Assert.assertEquals(misses + 1, AnnotationIndexCache.getMissCount());
+
+        cache.write(file, createIndex());
+        final Index index = cache.read(file);
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(index.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+        Assert.assertFalse(index.getAnnotations(DotName.createSimple(Test.class.getName())).isEmpty());
+        Assert.assertEquals(hits + 1, AnnotationIndexCache.getHitCount());
+    }
+
+    @Test
+    public void testCorruptIndexIsDiscarded() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, Collections.<String, byte[]>emptyMap());
+        final File file = cache.getFile(resourceRoot("lib/a.jar"), null);
+        directory.mkdirs();
+        Assert.assertTrue(file.createNewFile());
+        Assert.assertNull(cache.read(file));
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final Index index = createIndex();
+        final AnnotationIndexCache unlimited = new AnnotationIndexCache(directory, Long.MAX_VALUE, deploymentRoot, HASH, Collections.<String, byte[]>emptyMap());
+        final File first = unlimited.getFile(resourceRoot("lib/1.jar"), null);
+        unlimited.write(first, index);
+        final long length = first.length();
+
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory, length * 7 / 2, deploymentRoot, HASH, Collections.<String, byte[]>emptyMap());
+        final long now = System.currentTimeMillis();
+        first.setLastModified(now - 30000);
+        final File second = cache.getFile(resourceRoot("lib/2.jar"), null);
+        cache.write(second, index);
+        second.setLastModified(now - 20000);
+        final File third = cache.getFile(resourceRoot("lib/3.jar"), null);
+        cache.write(third, index);
+        third.setLastModified(now - 10000);
+        Assert.assertTrue(first.exists());
+
+        // the limit is exceeded, so the least recently used indexes are removed until the cache is 3/4 full
+        final File fourth = cache.getFile(resourceRoot("lib/4.jar"), null);
+        cache.write(fourth, index);
+        Assert.assertFalse(first.exists());
+        Assert.assertFalse(second.exists());
+        Assert.assertTrue(third.exists());
+        Assert.assertTrue(fourth.exists());
+    }
+
+    private ResourceRoot resourceRoot(String path) {
+        return new ResourceRoot(deploymentRoot.getChild(path), null);
+    }
+
+    private static Index createIndex() throws Exception {
+        final Indexer indexer = new Indexer();
+        final String name = AnnotationIndexCacheTestCase.class.getName().replace('.', '/') + ".class";
+        try (InputStream in = AnnotationIndexCacheTestCase.class.getClassLoader().getResourceAsStream(name)) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VisitorAttributes;
+import org.jboss.vfs.util.SuffixMatchFilter;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CompositeIndex} of a deployment with 30 resource roots, made by splitting the classes of this
+ * module.
+ */
+public class CompositeIndexTestCase {
+
+    private static final int ROOTS = 30;
+
+    private static List<Index> indexes;
+
+    @BeforeClass
+    public static void createIndexes() throws Exception {
+        final File classes = new File(CompositeIndex.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final VirtualFile root = VFS.getChild(classes.getAbsolutePath());
+        final List<VirtualFile> classFiles = root.getChildren(new SuffixMatchFilter(".class", VisitorAttributes.RECURSE_LEAVES_ONLY));
+        indexes = new ArrayList<>();
+        for (int i = 0; i < ROOTS; i++) {
+            indexes.add(ResourceRootIndexer.index(root, classFiles, classFiles.size() * i / ROOTS, classFiles.size() * (i + 1) / ROOTS));
+        }
+    }
+
+    @Test
+    public void testLookups() {
+        final CompositeIndex compositeIndex = new CompositeIndex(indexes);
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                final DotName name = classInfo.name();
+                Assert.assertSame(classInfo, compositeIndex.getClassByName(name));
+                Assert.assertEquals(directSubclasses(name), compositeIndex.getKnownDirectSubclasses(name));
+                Assert.assertEquals(directImplementors(name), compositeIndex.getKnownDirectImplementors(name));
+                for (DotName annotation : classInfo.annotations().keySet()) {
+                    Assert.assertEquals(annotationCount(annotation), compositeIndex.getAnnotations(annotation).size());
+                }
+            }
+        }
+        Assert.assertEquals(knownClassCount(), compositeIndex.getKnownClasses().size());
+
+        final Set<ClassInfo> processors = compositeIndex.getAllKnownImplementors(DotName.createSimple(DeploymentUnitProcessor.class.getName()));
+        Assert.assertNotNull(find(processors, CompositeIndexProcessor.class));
+        Assert.assertNotNull(find(processors, AnnotationIndexProcessor.class));
+        // each caller gets its own copy of the shared result
+        processors.clear();
+        Assert.assertNotNull(find(compositeIndex.getAllKnownImplementors(DotName.createSimple(DeploymentUnitProcessor.class.getName())), CompositeIndexProcessor.class));
+        Assert.assertTrue(compositeIndex.getAllKnownSubclasses(DotName.createSimple("does.not.Exist")).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedLookups() {
+        final CompositeIndex compositeIndex = new CompositeIndex(indexes);
+        final Map<DotName, Set<ClassInfo>> subclasses = new HashMap<>();
+        final Map<DotName, Set<ClassInfo>> implementors = new HashMap<>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                subclasses.put(classInfo.name(), compositeIndex.getAllKnownSubclasses(classInfo.name()));
+                implementors.put(classInfo.name(), compositeIndex.getAllKnownImplementors(classInfo.name()));
+            }
+        }
+        // later lookups are answered from the cache, and must give the same results as the first
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                Assert.assertEquals(subclasses.get(classInfo.name()), compositeIndex.getAllKnownSubclasses(classInfo.name()));
+                Assert.assertEquals(implementors.get(classInfo.name()), compositeIndex.getAllKnownImplementors(classInfo.name()));
+            }
+        }
+    }
+
+    private static Set<ClassInfo> directSubclasses(DotName name) {
+        final Set<ClassInfo> result = new HashSet<>();
+        for (Index index : indexes) {
+            result.addAll(index.getKnownDirectSubclasses(name));
+        }
+        return result;
+    }
+
+    private static Set<ClassInfo> directImplementors(DotName name) {
+        final Set<ClassInfo> result = new HashSet<>();
+        for (Index index : indexes) {
+            result.addAll(index.getKnownDirectImplementors(name));
+        }
+        return result;
+    }
+
+    private static int annotationCount(DotName name) {
+        int count = 0;
+        for (Index index : indexes) {
+            count += index.getAnnotations(name).size();
+        }
+        return count;
+    }
+
+    private static int knownClassCount() {
+        int count = 0;
+        for (Index index : indexes) {
+            count += index.getKnownClasses().size();
+        }
+        return count;
+    }
+
+    private static ClassInfo find(Set<ClassInfo> classes, Class<?> clazz) {
+        for (ClassInfo classInfo : classes) {
+            if (classInfo.name().toString().equals(clazz.getName())) {
+                return classInfo;
+            }
+        }
+        return null;
+    }
+}
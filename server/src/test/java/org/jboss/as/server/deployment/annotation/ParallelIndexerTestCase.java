@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.VisitorAttributes;
+import org.jboss.vfs.util.SuffixMatchFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that indexing in parallel gives the same index as indexing sequentially, using the classes of this module
+ * as a large resource root.
+ */
+public class ParallelIndexerTestCase {
+
+    @Test
+    public void testParallelIndexMatchesSequentialIndex() throws Exception {
+        final File classes = new File(ResourceRootIndexer.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final VirtualFile root = VFS.getChild(classes.getAbsolutePath());
+        final List<VirtualFile> classFiles = root.getChildren(new SuffixMatchFilter(".class", VisitorAttributes.RECURSE_LEAVES_ONLY));
+        Assert.assertTrue(classFiles.size() > ParallelIndexer.MIN_PARTITION_SIZE);
+
+        final Index sequential = ResourceRootIndexer.index(root, classFiles, 0, classFiles.size());
+        final Index parallel = ParallelIndexer.index(root, classFiles);
+        Assert.assertEquals(names(sequential.getKnownClasses()), names(parallel.getKnownClasses()));
+        for (ClassInfo classInfo : sequential.getKnownClasses()) {
+            final DotName name = classInfo.name();
+            Assert.assertEquals(names(sequential.getKnownDirectSubclasses(name)), names(parallel.getKnownDirectSubclasses(name)));
+            Assert.assertEquals(names(sequential.getKnownDirectImplementors(name)), names(parallel.getKnownDirectImplementors(name)));
+            for (DotName annotation : classInfo.annotations().keySet()) {
+                Assert.assertEquals(sequential.getAnnotations(annotation).size(), parallel.getAnnotations(annotation).size());
+            }
+        }
+    }
+
+    @Test
+    public void testMergeOfEmptyIndexes() {
+        final List<Index> indexes = new ArrayList<>();
+        Assert.assertTrue(ParallelIndexer.merge(indexes).getKnownClasses().isEmpty());
+    }
+
+    private static Set<String> names(Iterable<ClassInfo> classes) {
+        final Set<String> names = new TreeSet<>();
+        for (ClassInfo classInfo : classes) {
+            names.add(classInfo.name().toString());
+        }
+        return names;
+    }
+}
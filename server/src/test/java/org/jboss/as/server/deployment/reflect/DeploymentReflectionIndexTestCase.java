@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testIndexIsComputedOnce() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<?> first = index.getClassIndex(DeploymentReflectionIndexTestCase.class);
+        Assert.assertSame(first, index.getClassIndex(DeploymentReflectionIndexTestCase.class));
+        Assert.assertNotNull(first.getMethod(void.class, "testIndexIsComputedOnce"));
+        // a different deployment has its own index of a deployment class
+        Assert.assertNotSame(first, DeploymentReflectionIndex.create().getClassIndex(DeploymentReflectionIndexTestCase.class));
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final Class<?>[] types = {First.class, Second.class, Third.class, DeploymentReflectionIndexTestCase.class};
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<ClassReflectionIndex<?>>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                results.add(executor.submit(new Callable<List<ClassReflectionIndex<?>>>() {
+                    @Override
+                    public List<ClassReflectionIndex<?>> call() {
+                        final List<ClassReflectionIndex<?>> indexes = new ArrayList<>();
+                        for (Class<?> type : types) {
+                            indexes.add(index.getClassIndex(type));
+                        }
+                        return indexes;
+                    }
+                }));
+            }
+            final List<ClassReflectionIndex<?>> expected = results.get(0).get();
+            for (Future<List<ClassReflectionIndex<?>>> result : results) {
+                final List<ClassReflectionIndex<?>> indexes = result.get();
+                for (int i = 0; i < types.length; ++i) {
+                    Assert.assertSame(expected.get(i), indexes.get(i));
+                    Assert.assertSame(types[i], indexes.get(i).getIndexedClass());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStaticClasses() {
+        Assert.assertTrue(DeploymentReflectionIndex.isStatic(String.class));
+        Assert.assertTrue(DeploymentReflectionIndex.isStatic(int.class));
+        // not loaded by a module, so it may belong to a class loader that can be discarded
+        Assert.assertFalse(DeploymentReflectionIndex.isStatic(DeploymentReflectionIndexTestCase.class));
+    }
+
+    static class First {
+        private int value;
+    }
+
+    static class Second extends First {
+        void run() {
+        }
+    }
+
+    static class Third extends Second {
+        Third(String name) {
+        }
+    }
+}